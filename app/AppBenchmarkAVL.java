@@ -0,0 +1,82 @@
+package app;
+
+import java.util.Random;
+import lib.BinTreeAVL;
+import lib.BinTreeInterface;
+
+/**
+ *
+ * Programa de medição da vazão de inserção da árvore AVL.
+ *
+ * Para cada tamanho (10^4, 10^5 e 10^6 chaves) insere alunos em ordem crescente de
+ * matrícula (o pior caso para uma BST, o mesmo padrão de geraArvoreDegenerada) e em
+ * ordem aleatória, imprimindo o tempo total, a vazão em inserções por segundo e a
+ * altura final da árvore.
+ *
+ * Execução: java -cp bin app.AppBenchmarkAVL
+ */
+public class AppBenchmarkAVL {
+
+    static final int[] TAMANHOS = {10_000, 100_000, 1_000_000};
+    static final int MATRICULA_BASE = 2000000000;
+
+    public static void main(String[] args) {
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+
+        // Aquecimento do JIT antes das medições
+        for (int i = 0; i < 5; i++) {
+            mede(new BinTreeAVL<>(comparador), geraSequencial(10_000));
+        }
+
+        for (int n : TAMANHOS) {
+            Aluno[] sequencial = geraSequencial(n);
+            Aluno[] aleatorio = geraAleatorio(n, 42);
+
+            BinTreeAVL<Aluno> arv = new BinTreeAVL<>(comparador);
+            long nanos = mede(arv, sequencial);
+            imprime("sequencial", n, nanos, arv);
+
+            arv = new BinTreeAVL<>(comparador);
+            nanos = mede(arv, aleatorio);
+            imprime("aleatória ", n, nanos, arv);
+        }
+    }
+
+    /**
+     * Insere todos os alunos na árvore e retorna o tempo gasto em nanossegundos.
+     */
+    private static long mede(BinTreeInterface<Aluno> arv, Aluno[] alunos) {
+        long inicio = System.nanoTime();
+        for (Aluno a : alunos) {
+            arv.adicionar(a);
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private static void imprime(String ordem, int n, long nanos, BinTreeInterface<Aluno> arv) {
+        double segundos = nanos / 1e9;
+        System.out.printf("Inserção %s n=%,10d  tempo=%8.3f s  vazão=%,12.0f ins/s  altura=%d%n",
+                ordem, n, segundos, n / segundos, arv.altura());
+    }
+
+    private static Aluno[] geraSequencial(int n) {
+        Aluno[] alunos = new Aluno[n];
+        for (int i = 0; i < n; i++) {
+            alunos[i] = new Aluno(MATRICULA_BASE + i + 1, "Aluno " + i);
+        }
+        return alunos;
+    }
+
+    private static Aluno[] geraAleatorio(int n, long semente) {
+        Aluno[] alunos = geraSequencial(n);
+        Random rand = new Random(semente);
+        // Embaralhamento de Fisher-Yates
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            Aluno tmp = alunos[i];
+            alunos[i] = alunos[j];
+            alunos[j] = tmp;
+        }
+        return alunos;
+    }
+}
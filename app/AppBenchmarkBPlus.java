@@ -0,0 +1,81 @@
+package app;
+
+import java.util.Random;
+import lib.BinTreeAVL;
+import lib.BinTreeBPlus;
+import lib.BinTreeInterface;
+
+/**
+ *
+ * Programa de comparação entre a BinTreeAVL (um nó por aluno) e a BinTreeBPlus (nós
+ * largos com vetores de chaves e folhas ligadas).
+ *
+ * Para cada tamanho N as duas árvores recebem os mesmos N alunos em ordem aleatória;
+ * depois são medidas buscas por matrículas aleatórias e um caminhamento em ordem
+ * completo pelo iterador. O resultado de cada medição é usado para que o JIT não
+ * elimine o trabalho.
+ *
+ * Execução: java -cp bin app.AppBenchmarkBPlus [N...]
+ */
+public class AppBenchmarkBPlus {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int BUSCAS = 2_000_000;
+    static final int REPETICOES = 3;
+
+    public static void main(String[] args) {
+        int[] tamanhos = {100_000, 1_000_000};
+        if (args.length > 0) {
+            tamanhos = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                tamanhos[i] = Integer.parseInt(args[i]);
+            }
+        }
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        for (int n : tamanhos) {
+            Aluno[] alunos = new Aluno[n];
+            Random rand = new Random(42);
+            for (int i = 0; i < n; i++) {
+                alunos[i] = new Aluno(MATRICULA_BASE + rand.nextInt(2 * n), "Aluno");
+            }
+            Aluno[] chaves = new Aluno[BUSCAS];
+            for (int i = 0; i < BUSCAS; i++) {
+                chaves[i] = new Aluno(MATRICULA_BASE + rand.nextInt(2 * n), "");
+            }
+            System.out.printf("%nN=%,d%n", n);
+            for (int r = 0; r < REPETICOES; r++) {
+                mede("BinTreeAVL", new BinTreeAVL<>(comparador), alunos, chaves);
+                mede("BinTreeBPlus", new BinTreeBPlus<>(comparador), alunos, chaves);
+            }
+        }
+    }
+
+    /**
+     * Mede inserção, busca e caminhamento em uma árvore e imprime uma linha de resultado.
+     */
+    private static <A extends BinTreeInterface<Aluno> & Iterable<Aluno>> void mede(
+            String nome, A arv, Aluno[] alunos, Aluno[] chaves) {
+        long inicio = System.nanoTime();
+        for (Aluno a : alunos) {
+            arv.adicionar(a);
+        }
+        double nsInsercao = (double) (System.nanoTime() - inicio) / alunos.length;
+
+        int encontrados = 0;
+        inicio = System.nanoTime();
+        for (Aluno chave : chaves) {
+            if (arv.pesquisar(chave) != null) encontrados++;
+        }
+        double nsBusca = (double) (System.nanoTime() - inicio) / chaves.length;
+
+        long soma = 0;
+        inicio = System.nanoTime();
+        for (Aluno a : arv) {
+            soma += a.getMatricula();
+        }
+        double nsCaminhamento = (double) (System.nanoTime() - inicio) / arv.quantidadeNos();
+
+        System.out.printf("%-13s inserção=%7.1f ns  busca=%7.1f ns  em ordem=%6.1f ns/elem  altura=%d  (%d, %d)%n",
+                nome, nsInsercao, nsBusca, nsCaminhamento, arv.altura(), encontrados, soma % 10);
+    }
+}
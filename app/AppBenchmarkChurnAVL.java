@@ -0,0 +1,91 @@
+package app;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import lib.BinTreeAVL;
+
+/**
+ *
+ * Programa de medição da árvore AVL sob rotatividade (inserções e remoções intercaladas).
+ *
+ * A árvore é carregada com N alunos e, em seguida, recebe milhões de operações
+ * aleatórias (metade inserções, metade remoções) sobre um universo de 2N matrículas,
+ * de forma que a quantidade de nós oscila em torno de N. A cada bloco de operações são
+ * impressos a quantidade de nós, a altura, a latência média de uma busca e os bytes
+ * alocados por operação (os alunos do universo são criados antes, então o que aparece
+ * é a alocação da própria árvore). Com "pool" no terceiro argumento a árvore usa o
+ * modo pool (usarPool) dimensionado para o universo.
+ *
+ * Execução: java -cp bin app.AppBenchmarkChurnAVL [N] [operações] [pool]
+ */
+public class AppBenchmarkChurnAVL {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int BUSCAS_POR_AMOSTRA = 200_000;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long operacoes = args.length > 1 ? Long.parseLong(args[1]) : 5_000_000L;
+        long bloco = operacoes / 10;
+
+        boolean comPool = args.length > 2 && args[2].equals("pool");
+
+        Random rand = new Random(42);
+        int universo = 2 * n;
+        Aluno[] alunos = new Aluno[universo];
+        for (int i = 0; i < universo; i++) {
+            alunos[i] = new Aluno(MATRICULA_BASE + i, "Aluno");
+        }
+        BinTreeAVL<Aluno> arv = new BinTreeAVL<>(new ComparadorAlunoPorMatricula());
+        if (comPool) {
+            arv.usarPool(universo);
+        }
+
+        for (int i = 0; i < n; i++) {
+            arv.adicionar(alunos[rand.nextInt(universo)]);
+        }
+        System.out.printf("Carga inicial: nós=%,d altura=%d pool=%s%n", arv.quantidadeNos(), arv.altura(), comPool);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long alocadoInicio = threads.getThreadAllocatedBytes(thread);
+        long inicio = System.nanoTime();
+        for (long op = 1; op <= operacoes; op++) {
+            Aluno a = alunos[rand.nextInt(universo)];
+            if (rand.nextBoolean()) {
+                arv.adicionar(a);
+            } else {
+                arv.remover(a);
+            }
+
+            if (op % bloco == 0) {
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                double bytesPorOp = (double) (threads.getThreadAllocatedBytes(thread) - alocadoInicio) / bloco;
+                System.out.printf("ops=%,12d  nós=%,9d  altura=%3d  vazão=%,10.0f ops/s  alocação=%5.1f bytes/op  busca=%6.1f ns%n",
+                        op, arv.quantidadeNos(), arv.altura(), bloco / segundos, bytesPorOp,
+                        latenciaBusca(arv, rand, universo));
+                alocadoInicio = threads.getThreadAllocatedBytes(thread);
+                inicio = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Mede a latência média de buscas por matrículas aleatórias do universo.
+     */
+    private static double latenciaBusca(BinTreeAVL<Aluno> arv, Random rand, int universo) {
+        Aluno[] chaves = new Aluno[BUSCAS_POR_AMOSTRA];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = new Aluno(MATRICULA_BASE + rand.nextInt(universo), "");
+        }
+        int encontrados = 0;
+        long inicio = System.nanoTime();
+        for (Aluno chave : chaves) {
+            if (arv.pesquisar(chave) != null) encontrados++;
+        }
+        long nanos = System.nanoTime() - inicio;
+        // usa o contador para que o JIT não elimine as buscas
+        if (encontrados < 0) System.out.println(encontrados);
+        return (double) nanos / chaves.length;
+    }
+}
@@ -0,0 +1,124 @@
+package app;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import lib.BinTreeAVL;
+import lib.BinTreeConcorrente;
+import lib.BinTreeFragmentada;
+import lib.BinTreeInterface;
+
+/**
+ *
+ * Programa de medição de vazão com várias threads.
+ *
+ * Compara a BinTreeConcorrente (leituras sem bloqueio) e a BinTreeFragmentada (um lock
+ * por faixa de chaves) com uma BinTreeAVL protegida por um lock global (synchronized), com 1, 4, 16 e 32 threads e proporções de
+ * leitura/escrita de 100/0, 90/10 e 50/50. As escritas são metade inserções e metade
+ * remoções sobre o mesmo universo de matrículas, então o tamanho da árvore fica estável.
+ *
+ * Execução: java -cp bin app.AppBenchmarkConcorrente [segundos por medição]
+ */
+public class AppBenchmarkConcorrente {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int UNIVERSO = 1 << 20;
+    static final int[] THREADS = {1, 4, 16, 32};
+    static final int[] PERCENTUAL_LEITURA = {100, 90, 50};
+
+    public static void main(String[] args) throws Exception {
+        double segundos = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+
+        for (int leitura : PERCENTUAL_LEITURA) {
+            for (int threads : THREADS) {
+                BinTreeConcorrente<Aluno> concorrente = new BinTreeConcorrente<>(comparador);
+                carrega(concorrente);
+                double vazaoConc = mede(concorrente, threads, leitura, segundos);
+
+                BinTreeFragmentada<Aluno> fragmentada = new BinTreeFragmentada<>(comparador);
+                carrega(fragmentada);
+                double vazaoFrag = mede(fragmentada, threads, leitura, segundos);
+
+                BinTreeInterface<Aluno> comLock = new Sincronizada<>(new BinTreeAVL<>(comparador));
+                carrega(comLock);
+                double vazaoLock = mede(comLock, threads, leitura, segundos);
+
+                System.out.printf("leitura/escrita=%3d/%-3d threads=%2d  concorrente=%,12.0f ops/s  fragmentada=%,12.0f ops/s  lock global=%,12.0f ops/s%n",
+                        leitura, 100 - leitura, threads, vazaoConc, vazaoFrag, vazaoLock);
+            }
+        }
+    }
+
+    /**
+     * Preenche a árvore com metade do universo de matrículas.
+     */
+    private static void carrega(BinTreeInterface<Aluno> arv) {
+        for (int i = 0; i < UNIVERSO; i += 2) {
+            arv.adicionar(new Aluno(MATRICULA_BASE + i, "Aluno"));
+        }
+    }
+
+    /**
+     * Executa a carga com 'threads' threads durante 'segundos' e retorna a vazão total.
+     */
+    private static double mede(BinTreeInterface<Aluno> arv, int threads, int leitura, double segundos)
+            throws InterruptedException {
+        LongAdder operacoes = new LongAdder();
+        CountDownLatch largada = new CountDownLatch(1);
+        long duracao = (long) (segundos * 1e9);
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            ts[t] = new Thread(() -> {
+                ThreadLocalRandom rand = ThreadLocalRandom.current();
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long fim = System.nanoTime() + duracao;
+                long feitas = 0;
+                while ((feitas & 255) != 0 || System.nanoTime() < fim) {
+                    Aluno a = new Aluno(MATRICULA_BASE + rand.nextInt(UNIVERSO), "Aluno");
+                    int sorteio = rand.nextInt(100);
+                    if (sorteio < leitura) {
+                        arv.pesquisar(a);
+                    } else if ((sorteio & 1) == 0) {
+                        arv.adicionar(a);
+                    } else {
+                        arv.remover(a);
+                    }
+                    feitas++;
+                }
+                operacoes.add(feitas);
+            });
+            ts[t].start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread t : ts) {
+            t.join();
+        }
+        return operacoes.sum() / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    /**
+     * Envolve uma árvore comum com um lock global, como é feito hoje.
+     */
+    static class Sincronizada<T> implements BinTreeInterface<T> {
+        private final BinTreeInterface<T> arv;
+
+        Sincronizada(BinTreeInterface<T> arv) {
+            this.arv = arv;
+        }
+
+        public synchronized void adicionar(T novoValor) { arv.adicionar(novoValor); }
+        public synchronized T pesquisar(T valor) { return arv.pesquisar(valor); }
+        public synchronized T pesquisar(T valor, java.util.Comparator<T> comparador) { return arv.pesquisar(valor, comparador); }
+        public synchronized T remover(T valor) { return arv.remover(valor); }
+        public synchronized int altura() { return arv.altura(); }
+        public synchronized int quantidadeNos() { return arv.quantidadeNos(); }
+        public synchronized String caminharEmNivel() { return arv.caminharEmNivel(); }
+        public synchronized String caminharEmOrdem() { return arv.caminharEmOrdem(); }
+    }
+}
@@ -0,0 +1,95 @@
+package app;
+
+import java.util.Random;
+import lib.BinTreeAVL;
+import lib.IntAVLTree;
+
+/**
+ *
+ * Programa de comparação entre o índice de matrículas feito com BinTreeAVL e
+ * ComparadorAlunoPorMatricula e o feito com IntAVLTree (chaves int em vetores).
+ *
+ * Para cada tamanho N mede a memória ocupada pela estrutura do índice (os alunos são
+ * criados antes e são os mesmos nas duas árvores), o tempo de carga e a latência
+ * média de buscas por matrículas aleatórias. A memória é medida pela diferença do
+ * heap usado após System.gc(), então é uma aproximação.
+ *
+ * Execução: java -cp bin app.AppBenchmarkIntAVL [N...]
+ */
+public class AppBenchmarkIntAVL {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int BUSCAS = 2_000_000;
+
+    public static void main(String[] args) {
+        int[] tamanhos = {100_000, 1_000_000};
+        if (args.length > 0) {
+            tamanhos = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                tamanhos[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int n : tamanhos) {
+            Random rand = new Random(42);
+            Aluno[] alunos = new Aluno[n];
+            for (int i = 0; i < n; i++) {
+                alunos[i] = new Aluno(MATRICULA_BASE + rand.nextInt(2 * n), "Aluno");
+            }
+            int[] matriculas = new int[BUSCAS];
+            Aluno[] chaves = new Aluno[BUSCAS];
+            for (int i = 0; i < BUSCAS; i++) {
+                matriculas[i] = MATRICULA_BASE + rand.nextInt(2 * n);
+                chaves[i] = new Aluno(matriculas[i], "");
+            }
+            System.out.printf("%nN=%,d%n", n);
+
+            for (int r = 0; r < 3; r++) {
+                long antes = heapUsado();
+                long inicio = System.nanoTime();
+                BinTreeAVL<Aluno> avl = new BinTreeAVL<>(new ComparadorAlunoPorMatricula());
+                for (Aluno a : alunos) {
+                    avl.adicionar(a);
+                }
+                double nsCarga = (double) (System.nanoTime() - inicio) / n;
+                long bytes = heapUsado() - antes;
+                int encontrados = 0;
+                inicio = System.nanoTime();
+                for (Aluno chave : chaves) {
+                    if (avl.pesquisar(chave) != null) encontrados++;
+                }
+                double nsBusca = (double) (System.nanoTime() - inicio) / BUSCAS;
+                imprime("BinTreeAVL", nsCarga, nsBusca, (double) bytes / avl.quantidadeNos(), encontrados);
+                avl = null;
+
+                antes = heapUsado();
+                inicio = System.nanoTime();
+                IntAVLTree<Aluno> indice = new IntAVLTree<>(Aluno::getMatricula);
+                for (Aluno a : alunos) {
+                    indice.adicionar(a);
+                }
+                nsCarga = (double) (System.nanoTime() - inicio) / n;
+                bytes = heapUsado() - antes;
+                encontrados = 0;
+                inicio = System.nanoTime();
+                for (int m : matriculas) {
+                    if (indice.pesquisar(m) != null) encontrados++;
+                }
+                nsBusca = (double) (System.nanoTime() - inicio) / BUSCAS;
+                imprime("IntAVLTree", nsCarga, nsBusca, (double) bytes / indice.quantidadeNos(), encontrados);
+            }
+        }
+    }
+
+    private static void imprime(String nome, double nsCarga, double nsBusca, double bytesPorEntrada, int encontrados) {
+        System.out.printf("%-11s carga=%7.1f ns/ins  busca=%7.1f ns  memória=%5.1f bytes/entrada  (%d)%n",
+                nome, nsCarga, nsBusca, bytesPorEntrada, encontrados);
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
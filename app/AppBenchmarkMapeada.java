@@ -0,0 +1,107 @@
+package app;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import lib.BinTreeAVL;
+import lib.BinTreeInterface;
+import lib.BinTreeMapeada;
+
+/**
+ *
+ * Programa de comparação entre o índice de alunos na BinTreeAVL (nós no heap) e na
+ * BinTreeMapeada (nós em um arquivo mapeado em memória).
+ *
+ * Para N alunos inseridos em ordem aleatória mede o tempo de carga, a memória de heap
+ * ocupada pela árvore (diferença do heap usado após System.gc(), aproximada), a
+ * latência média de buscas aleatórias e, para a árvore mapeada, o tempo para fechar e
+ * reabrir o arquivo e a primeira busca depois de reaberto.
+ *
+ * Execução: java -cp bin app.AppBenchmarkMapeada [N] [arquivo]
+ */
+public class AppBenchmarkMapeada {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int BUSCAS = 1_000_000;
+
+    private static int encontradosNaBusca;    // impresso, para que as buscas não sejam eliminadas
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path arquivo = args.length > 1 ? Paths.get(args[1]) : Files.createTempFile("alunos", ".arv");
+        Files.deleteIfExists(arquivo);
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        CodecAluno codec = new CodecAluno();
+
+        Random rand = new Random(42);
+        int[] matriculas = new int[n];
+        for (int i = 0; i < n; i++) {
+            matriculas[i] = MATRICULA_BASE + rand.nextInt(2 * n);
+        }
+        Aluno[] chaves = new Aluno[BUSCAS];
+        for (int i = 0; i < BUSCAS; i++) {
+            chaves[i] = new Aluno(MATRICULA_BASE + rand.nextInt(2 * n), "");
+        }
+
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        BinTreeAVL<Aluno> avl = new BinTreeAVL<>(comparador);
+        for (int m : matriculas) {
+            avl.adicionar(new Aluno(m, "Aluno " + m));
+        }
+        double nsCarga = (double) (System.nanoTime() - inicio) / n;
+        long bytes = heapUsado() - antes;
+        imprime("BinTreeAVL", nsCarga, bytes, avl.quantidadeNos(), mediaBusca(avl, chaves));
+        avl = null;
+
+        antes = heapUsado();
+        inicio = System.nanoTime();
+        BinTreeMapeada<Aluno> mapeada = new BinTreeMapeada<>(arquivo, comparador, codec);
+        for (int m : matriculas) {
+            mapeada.adicionar(new Aluno(m, "Aluno " + m));
+        }
+        nsCarga = (double) (System.nanoTime() - inicio) / n;
+        bytes = heapUsado() - antes;
+        imprime("BinTreeMapeada", nsCarga, bytes, mapeada.quantidadeNos(), mediaBusca(mapeada, chaves));
+
+        inicio = System.nanoTime();
+        mapeada.close();
+        double msFechar = (System.nanoTime() - inicio) / 1e6;
+        inicio = System.nanoTime();
+        mapeada = new BinTreeMapeada<>(arquivo, comparador, codec);
+        Aluno primeiro = mapeada.pesquisar(chaves[0]);
+        double msReabrir = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("arquivo=%,d bytes  fechar (force)=%.1f ms  reabrir + 1ª busca=%.1f ms  nós=%,d  altura=%d  (%s)%n",
+                Files.size(arquivo), msFechar, msReabrir, mapeada.quantidadeNos(), mapeada.altura(),
+                primeiro == null ? "-" : primeiro.getNome());
+        mapeada.close();
+        if (args.length < 2) {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static double mediaBusca(BinTreeInterface<Aluno> arv, Aluno[] chaves) {
+        int encontrados = 0;
+        long inicio = System.nanoTime();
+        for (Aluno chave : chaves) {
+            if (arv.pesquisar(chave) != null) encontrados++;
+        }
+        double ns = (double) (System.nanoTime() - inicio) / chaves.length;
+        encontradosNaBusca = encontrados;
+        return ns;
+    }
+
+    private static void imprime(String nome, double nsCarga, long bytes, int nos, double nsBusca) {
+        System.out.printf("%-15s carga=%7.1f ns/ins  heap=%,13d bytes (%5.1f bytes/nó)  busca=%7.1f ns  (%d)%n",
+                nome, nsCarga, bytes, (double) bytes / nos, nsBusca, encontradosNaBusca);
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,79 @@
+package app;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import lib.BinTreeAVL;
+
+/**
+ *
+ * Programa de medição dos Streams paralelos sobre uma árvore AVL.
+ *
+ * Monta uma BinTreeAVL de alunos e conta quantos nomes começam com um prefixo,
+ * primeiro com stream() e depois com parallelStream() executado em pools de 1, 2,
+ * 4, ... threads (até a quantidade de processadores), imprimindo o tempo médio e
+ * o ganho em relação à versão sequencial.
+ *
+ * Execução: java -cp bin app.AppBenchmarkParalelo [quantidade de alunos]
+ */
+public class AppBenchmarkParalelo {
+
+    static final int MATRICULA_BASE = 2000000000;
+    static final int REPETICOES = 10;
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        String prefixo = "Ma";
+
+        BinTreeAVL<Aluno> arv = new BinTreeAVL<>(new ComparadorAlunoPorMatricula());
+        Random rand = new Random(42);
+        for (int i = 1; i <= n; i++) {
+            arv.adicionar(new Aluno(MATRICULA_BASE + i, geraNome(rand)));
+        }
+        System.out.printf("Árvore AVL com %,d nós, altura %d%n", arv.quantidadeNos(), arv.altura());
+
+        // aquecimento
+        for (int i = 0; i < REPETICOES; i++) {
+            contaSequencial(arv, prefixo);
+            contaParalelo(arv, prefixo);
+        }
+
+        long inicio = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            total += contaSequencial(arv, prefixo);
+        }
+        double sequencial = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+        System.out.printf("stream()          : %8.2f ms  (%d nomes com '%s')%n",
+                sequencial, total / REPETICOES, prefixo);
+
+        int processadores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processadores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            inicio = System.nanoTime();
+            for (int i = 0; i < REPETICOES; i++) {
+                total += pool.submit(() -> contaParalelo(arv, prefixo)).get();
+            }
+            double paralelo = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+            System.out.printf("parallelStream() %2d threads: %8.2f ms  ganho=%.2fx%n",
+                    threads, paralelo, sequencial / paralelo);
+            pool.shutdown();
+        }
+    }
+
+    private static long contaSequencial(BinTreeAVL<Aluno> arv, String prefixo) {
+        return arv.stream().filter(a -> a.getNome().startsWith(prefixo)).count();
+    }
+
+    private static long contaParalelo(BinTreeAVL<Aluno> arv, String prefixo) {
+        return arv.parallelStream().filter(a -> a.getNome().startsWith(prefixo)).count();
+    }
+
+    private static String geraNome(Random rand) {
+        StringBuilder sb = new StringBuilder(8);
+        sb.append((char) ('A' + rand.nextInt(26)));
+        for (int i = 0; i < 6; i++) {
+            sb.append((char) ('a' + rand.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
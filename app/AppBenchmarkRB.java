@@ -0,0 +1,81 @@
+package app;
+
+import java.util.Random;
+import lib.BinTree;
+import lib.BinTreeAVL;
+import lib.BinTreeRB;
+import lib.MetricasArvore;
+
+/**
+ *
+ * Programa de comparação entre BinTree, BinTreeAVL e BinTreeRB.
+ *
+ * Para cada tamanho N, cada árvore recebe N inserções (em ordem crescente e em ordem
+ * aleatória) e depois 2N operações de rotatividade (metade inserções, metade remoções
+ * aleatórias sobre um universo de 2N matrículas). São impressos a vazão, as rotações
+ * simples por operação e a altura final. As rotações são contadas pelas métricas da
+ * árvore (BinTree.ativarMetricas), ativadas em todas as árvores para que o custo da
+ * medição seja o mesmo na vazão de cada uma. A BinTree só participa da carga aleatória, pois na
+ * carga em ordem ela degenera em uma lista.
+ *
+ * Execução: java -cp bin app.AppBenchmarkRB [N...]
+ */
+public class AppBenchmarkRB {
+
+    static final int MATRICULA_BASE = 2000000000;
+
+    public static void main(String[] args) {
+        int[] tamanhos = {100_000, 1_000_000};
+        if (args.length > 0) {
+            tamanhos = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                tamanhos[i] = Integer.parseInt(args[i]);
+            }
+        }
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        for (int n : tamanhos) {
+            for (boolean emOrdem : new boolean[] {true, false}) {
+                System.out.printf("%nN=%,d  carga %s%n", n, emOrdem ? "em ordem" : "aleatória");
+                if (!emOrdem) {
+                    mede("BinTree", new BinTree<>(comparador), n, emOrdem);
+                }
+                mede("BinTreeAVL", new BinTreeAVL<>(comparador), n, emOrdem);
+                mede("BinTreeRB", new BinTreeRB<>(comparador), n, emOrdem);
+            }
+        }
+    }
+
+    /**
+     * Executa a carga e a rotatividade em uma árvore e imprime uma linha de resultado.
+     */
+    private static void mede(String nome, BinTree<Aluno> arv, int n, boolean emOrdem) {
+        MetricasArvore metricas = arv.ativarMetricas();
+        Random rand = new Random(42);
+        int universo = 2 * n;
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int matricula = emOrdem ? i : rand.nextInt(universo);
+            arv.adicionar(new Aluno(MATRICULA_BASE + matricula, "Aluno"));
+        }
+        double segCarga = (System.nanoTime() - inicio) / 1e9;
+        long rotCarga = metricas.retrato().getRotacoesSimples();
+
+        long operacoes = 2L * n;
+        inicio = System.nanoTime();
+        for (long op = 0; op < operacoes; op++) {
+            Aluno a = new Aluno(MATRICULA_BASE + rand.nextInt(universo), "Aluno");
+            if (rand.nextBoolean()) {
+                arv.adicionar(a);
+            } else {
+                arv.remover(a);
+            }
+        }
+        double segChurn = (System.nanoTime() - inicio) / 1e9;
+        long rotChurn = metricas.retrato().getRotacoesSimples() - rotCarga;
+
+        System.out.printf("%-11s carga=%,11.0f ins/s  rot/ins=%.3f   rotatividade=%,11.0f ops/s  rot/op=%.3f   nós=%,d  altura=%d%n",
+                nome, n / segCarga, (double) rotCarga / n, operacoes / segChurn, (double) rotChurn / operacoes,
+                arv.quantidadeNos(), arv.altura());
+    }
+}
@@ -0,0 +1,39 @@
+package app;
+
+import java.util.Map;
+import lib.BinTree;
+import lib.BinTreeAVL;
+import lib.MetricasArvore;
+
+/**
+ *
+ * Programa que mostra as métricas de operação (BinTree.ativarMetricas) da BinTree e da
+ * BinTreeAVL para uma mesma carga do GeradorDeCarga: comparações, profundidade do
+ * caminho de busca, rotações por caso e latência, no formato texto e exportadas como
+ * pares nome/valor.
+ *
+ * Execução: java -cp bin app.AppMetricas [distribuição] [universo] [operações]
+ */
+public class AppMetricas {
+
+    public static void main(String[] args) {
+        String distribuicao = args.length > 0 ? args[0] : GeradorDeCarga.ZIPF;
+        int universo = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int operacoes = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        RastroDeOperacoes rastro = new GeradorDeCarga(distribuicao, universo, 30, 50, 42).gerar(operacoes);
+
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        mede("BinTree", new BinTree<>(comparador), rastro);
+        mede("BinTreeAVL", new BinTreeAVL<>(comparador), rastro);
+    }
+
+    private static void mede(String nome, BinTree<Aluno> arv, RastroDeOperacoes rastro) {
+        MetricasArvore metricas = arv.ativarMetricas();
+        rastro.reproduzir(arv);
+        MetricasArvore.Retrato retrato = metricas.retrato();
+        System.out.printf("%n== %s (nós=%,d altura=%d)%n%s%n", nome, arv.quantidadeNos(), arv.altura(), retrato);
+        for (Map.Entry<String, Number> e : retrato.paraMapa().entrySet()) {
+            System.out.println("  " + e.getKey() + " = " + e.getValue());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package app;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import lib.BinTree;
+import lib.BinTreeAVL;
+import lib.BinTreeBPlus;
+import lib.BinTreeInterface;
+import lib.BinTreeRB;
+import lib.IntAVLTree;
+
+/**
+ *
+ * Programa que reproduz uma carga de trabalho em todas as árvores de alunos e compara
+ * os percentis de latência por operação.
+ *
+ * A carga é gerada pelo GeradorDeCarga (distribuição, universo de chaves, quantidade
+ * de operações, percentuais de adicionar e pesquisar e semente) e pode ser salva em
+ * arquivo; ou é lida de um arquivo de rastro salvo antes (por exemplo um gravado de
+ * uma execução real com RastroDeOperacoes.Gravador). Cargas geradas partem de uma
+ * árvore com metade do universo, inserida em ordem aleatória; rastros lidos partem
+ * da árvore vazia.
+ *
+ * Execução: java -cp bin app.AppReproducaoDeCarga [distribuição universo operações %adicionar %pesquisar semente [arquivo para salvar]]
+ *           java -cp bin app.AppReproducaoDeCarga arquivo
+ */
+public class AppReproducaoDeCarga {
+
+    static final int REPETICOES = 3;
+
+    public static void main(String[] args) throws Exception {
+        RastroDeOperacoes rastro;
+        int universo = 0;
+        if (args.length == 1) {
+            rastro = RastroDeOperacoes.carregar(Paths.get(args[0]));
+            System.out.printf("Rastro %s: %,d operações%n", args[0], rastro.tamanho());
+        } else {
+            String distribuicao = args.length > 0 ? args[0] : GeradorDeCarga.ZIPF;
+            universo = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            int operacoes = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+            int adicionar = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            int pesquisar = args.length > 4 ? Integer.parseInt(args[4]) : 80;
+            long semente = args.length > 5 ? Long.parseLong(args[5]) : 42;
+            rastro = new GeradorDeCarga(distribuicao, universo, adicionar, pesquisar, semente).gerar(operacoes);
+            System.out.printf("Carga %s: universo=%,d operações=%,d adicionar/pesquisar/remover=%d/%d/%d semente=%d%n",
+                    distribuicao, universo, operacoes, adicionar, pesquisar, 100 - adicionar - pesquisar, semente);
+            if (args.length > 6) {
+                Path arquivo = Paths.get(args[6]);
+                rastro.salvar(arquivo);
+                System.out.println("Rastro salvo em " + arquivo);
+            }
+        }
+
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        for (int r = 0; r < REPETICOES; r++) {
+            System.out.println();
+            mede("BinTree", new BinTree<>(comparador), rastro, universo);
+            mede("BinTreeAVL", new BinTreeAVL<>(comparador), rastro, universo);
+            mede("BinTreeRB", new BinTreeRB<>(comparador), rastro, universo);
+            mede("BinTreeBPlus", new BinTreeBPlus<>(comparador), rastro, universo);
+            mede("IntAVLTree", new IntAVLTree<>(Aluno::getMatricula), rastro, universo);
+        }
+    }
+
+    /**
+     * Carrega metade do universo na árvore, reproduz o rastro e imprime os percentis.
+     */
+    private static void mede(String nome, BinTreeInterface<Aluno> arv, RastroDeOperacoes rastro, int universo) {
+        int[] iniciais = new int[universo / 2];
+        for (int i = 0; i < iniciais.length; i++) {
+            iniciais[i] = GeradorDeCarga.MATRICULA_BASE + 2 * i;
+        }
+        Random rand = new Random(7);
+        for (int i = iniciais.length - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = iniciais[i];
+            iniciais[i] = iniciais[j];
+            iniciais[j] = t;
+        }
+        for (int m : iniciais) {
+            arv.adicionar(new Aluno(m, "Aluno"));
+        }
+
+        long[] latencias = rastro.reproduzir(arv);
+        Arrays.sort(latencias);
+        long soma = 0;
+        for (long l : latencias) {
+            soma += l;
+        }
+        System.out.printf("%-13s média=%6.0f  p50=%6d  p90=%6d  p99=%7d  p99.9=%8d  máx=%9d ns  nós=%,d%n",
+                nome, (double) soma / Math.max(1, latencias.length),
+                RastroDeOperacoes.percentil(latencias, 50), RastroDeOperacoes.percentil(latencias, 90),
+                RastroDeOperacoes.percentil(latencias, 99), RastroDeOperacoes.percentil(latencias, 99.9),
+                latencias.length == 0 ? 0 : latencias[latencias.length - 1], arv.quantidadeNos());
+    }
+}
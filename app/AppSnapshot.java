@@ -0,0 +1,76 @@
+package app;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import lib.BinTreeAVL;
+import lib.MetricasArvore;
+import lib.SnapshotArvore;
+
+/**
+ *
+ * Programa que compara as duas formas de reconstruir uma árvore de alunos ao reiniciar:
+ * repetir um adicionar por aluno ou recarregar um snapshot binário (SnapshotArvore).
+ *
+ * Monta uma BinTreeAVL com N alunos em ordem aleatória, grava o snapshot em um
+ * arquivo temporário e mede a gravação, a recarga (contando as comparações, que devem
+ * ser zero) e a reinserção de todos os alunos.
+ *
+ * Execução: java -cp bin app.AppSnapshot [N]
+ */
+public class AppSnapshot {
+
+    static final int MATRICULA_BASE = 2000000000;
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ComparadorAlunoPorMatricula comparador = new ComparadorAlunoPorMatricula();
+        CodecAluno codec = new CodecAluno();
+
+        int[] matriculas = new int[n];
+        for (int i = 0; i < n; i++) {
+            matriculas[i] = MATRICULA_BASE + i;
+        }
+        Random rand = new Random(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = matriculas[i];
+            matriculas[i] = matriculas[j];
+            matriculas[j] = t;
+        }
+        BinTreeAVL<Aluno> original = new BinTreeAVL<>(comparador);
+        for (int m : matriculas) {
+            original.adicionar(new Aluno(m, "Aluno " + m));
+        }
+
+        Path arquivo = Files.createTempFile("arvore", ".snap");
+        try {
+            for (int r = 0; r < 3; r++) {
+                long inicio = System.nanoTime();
+                SnapshotArvore.salvar(original, codec, arquivo);
+                double msGravar = (System.nanoTime() - inicio) / 1e6;
+
+                BinTreeAVL<Aluno> recarregada = new BinTreeAVL<>(comparador);
+                MetricasArvore metricas = recarregada.ativarMetricas();
+                inicio = System.nanoTime();
+                SnapshotArvore.carregar(arquivo, codec, recarregada);
+                double msCarregar = (System.nanoTime() - inicio) / 1e6;
+                long comparacoes = metricas.retrato().getComparacoesTotais();
+                recarregada.desativarMetricas();
+
+                BinTreeAVL<Aluno> reinserida = new BinTreeAVL<>(comparador);
+                inicio = System.nanoTime();
+                for (Aluno a : original) {
+                    reinserida.adicionar(a);
+                }
+                double msReinserir = (System.nanoTime() - inicio) / 1e6;
+
+                System.out.printf("N=%,d arquivo=%,d bytes  gravar=%7.1f ms  carregar=%7.1f ms (%d comparações, altura %d)  reinserir=%7.1f ms%n",
+                        recarregada.quantidadeNos(), Files.size(arquivo), msGravar, msCarregar, comparacoes,
+                        recarregada.altura(), msReinserir);
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
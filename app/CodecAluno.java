@@ -0,0 +1,24 @@
+package app;
+
+import java.nio.ByteBuffer;
+import lib.CodecValor;
+
+/**
+ *
+ * Codec de Aluno para o snapshot binário das árvores: a matrícula (4 bytes) e o nome
+ * em UTF-8.
+ */
+public class CodecAluno implements CodecValor<Aluno> {
+
+    @Override
+    public void escrever(Aluno aluno, ByteBuffer destino) {
+        destino.putInt(aluno.getMatricula());
+        CodecValor.escreverTexto(aluno.getNome(), destino);
+    }
+
+    @Override
+    public Aluno ler(ByteBuffer origem) {
+        int matricula = origem.getInt();
+        return new Aluno(matricula, CodecValor.lerTexto(origem));
+    }
+}
@@ -5,6 +5,8 @@
  */
 package app;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 //Ajuste este import para que sua classe de Arvore Binária seja importada
 import lib.BinTree;
@@ -20,9 +22,25 @@ import lib.BinTreeInterface;
 public class GeradorDeArvores {
 
     final char vogais[] = {'a', 'e', 'i', 'o','u','A','E','I','O','U'};
-    final Random rand = new Random();
+    final Random rand;
     final int matriculaBase = 2000000000;
 
+    public GeradorDeArvores() {
+        this(new Random());
+    }
+
+    /**
+     * Cria um gerador que sempre produz os mesmos nomes para a mesma semente
+     * @param semente - semente do gerador pseudoaleatório
+     */
+    public GeradorDeArvores(long semente) {
+        this(new Random(semente));
+    }
+
+    private GeradorDeArvores(Random rand) {
+        this.rand = rand;
+    }
+
     /**
      * Método que verifica se um caracter é vogal
      * @param c - caracter a ser verificado
@@ -68,17 +86,17 @@ public class GeradorDeArvores {
 
     private String geraPalavra(int tam){
         int cont;
-        String palavra = "";
+        StringBuilder palavra = new StringBuilder(tam);
 
-        palavra+= geraLetra(false);
+        palavra.append(geraLetra(false));
         for(cont=1;cont<tam;cont++){
             //Com esse if garanto que a palavra não terá duas consoantes seguidas
             if (ehVogal(palavra.charAt(cont-1)))
-                palavra+=geraLetra(true);
+                palavra.append(geraLetra(true));
             else
-                palavra+=geraVogal(true);
+                palavra.append(geraVogal(true));
         }
-        return palavra;
+        return palavra.toString();
     }
 
     /**
@@ -89,11 +107,7 @@ public class GeradorDeArvores {
      */
 
     private String geraNomeCompleto(){
-        String nome="";
-        nome+= geraPalavra(3+rand.nextInt(6));
-        nome+=" ";
-        nome+= geraPalavra(3+rand.nextInt(6));
-        return nome;
+        return geraPalavra(3+rand.nextInt(6)) + " " + geraPalavra(3+rand.nextInt(6));
     }
 
     /**
@@ -116,6 +130,20 @@ public class GeradorDeArvores {
         }
     }
 
+    /**
+     * Método que gera, sem árvore, os alunos de geraArvoreDegenerada na ordem em que
+     * aquele método os insere (matrículas crescentes)
+     * @param n - quantidade de alunos
+     * @return lista com os alunos na ordem de inserção
+     */
+    public List<Aluno> geraAlunosDegenerada(int n){
+        List<Aluno> alunos = new ArrayList<>(Math.max(0, n));
+        for (int i = 1; i <= n; i++){
+            alunos.add(new Aluno(matriculaBase+i, geraNomeCompleto()));
+        }
+        return alunos;
+    }
+
     /**
      * Método que gera uma árvore perfeitamente balanceada com n elementos
      * @param min - valor a ser adicionado na matricula base para gerar a menor matrícula
@@ -140,4 +168,42 @@ public class GeradorDeArvores {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Método que gera, sem árvore, os alunos de geraArvorePerfeitamenteBalanceada na
+     * ordem em que aquele método os insere (pontos médios, em pré-ordem)
+     * @param min - valor a ser adicionado na matricula base para gerar a menor matrícula
+     * @param max - valor a ser adicionado na matricula base para gerar a maior matrícula
+     * @return lista com os alunos na ordem de inserção
+     */
+    public List<Aluno> geraAlunosPerfeitamenteBalanceada(int min, int max){
+        List<Aluno> alunos = new ArrayList<>(Math.max(0, max-min+1));
+        geraAlunosPerfeitamenteBalanceada(min, max, alunos);
+        return alunos;
+    }
+
+    private void geraAlunosPerfeitamenteBalanceada(int min, int max, List<Aluno> alunos){
+        if (min <= max){
+            int media = (min+max)/2;
+            alunos.add(new Aluno(matriculaBase+media, geraNomeCompleto()));
+            geraAlunosPerfeitamenteBalanceada(min, media-1, alunos);
+            geraAlunosPerfeitamenteBalanceada(media+1, max, alunos);
+        }
+    }
+
+    /**
+     * Método que gera uma árvore perfeitamente balanceada com as matrículas de min a max
+     * usando a construção em lote da BinTree: os alunos já são gerados em ordem e a árvore
+     * é montada em tempo linear, sem uma chamada a adicionar por aluno.
+     * @param min - valor a ser adicionado na matricula base para gerar a menor matrícula
+     * @param max - valor a ser adicionado na matricula base para gerar a maior matrícula
+     * @param arv - árvore (ordenada por matrícula) cujo conteúdo será substituído
+     */
+    public void geraArvorePerfeitamenteBalanceadaEmLote(int min, int max, BinTree<Aluno> arv){
+        List<Aluno> alunos = new ArrayList<>(Math.max(0, max-min+1));
+        for (int i = min; i <= max; i++){
+            alunos.add(new Aluno(matriculaBase+i, geraNomeCompleto()));
+        }
+        arv.buildFrom(alunos.iterator());
+    }
+
+}
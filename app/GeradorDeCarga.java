@@ -0,0 +1,166 @@
+package app;
+
+import java.util.Random;
+
+/**
+ *
+ * Gerador de cargas de trabalho (sequências de operações) para as árvores de alunos.
+ *
+ * Cada operação é um tipo (ADICIONAR, PESQUISAR ou REMOVER), sorteado com as proporções
+ * informadas, e uma chave entre 0 e universo-1, tirada da distribuição escolhida:
+ * - "uniforme": todas as chaves com a mesma probabilidade;
+ * - "zipf": a chave de posição k no ranking sai com probabilidade proporcional a
+ *   1/k^expoente; as posições são espalhadas pelo universo, então as chaves quentes
+ *   não são as menores;
+ * - "ordenada": 0, 1, 2, ... (volta ao início ao passar do universo);
+ * - "reversa": universo-1, universo-2, ...;
+ * - "serra": subidas de 'dente' chaves consecutivas, cada uma começando na metade da
+ *   anterior (como dados de série temporal que chegam com algum atraso).
+ *
+ * Com a mesma semente a sequência gerada é sempre a mesma. As cargas geradas por
+ * gerar usam como matrícula MATRICULA_BASE + chave.
+ */
+public class GeradorDeCarga {
+
+    static final int MATRICULA_BASE = 2000000000;
+
+    public static final byte ADICIONAR = 0;
+    public static final byte PESQUISAR = 1;
+    public static final byte REMOVER = 2;
+
+    public static final String UNIFORME = "uniforme";
+    public static final String ZIPF = "zipf";
+    public static final String ORDENADA = "ordenada";
+    public static final String REVERSA = "reversa";
+    public static final String SERRA = "serra";
+
+    static final double EXPOENTE_ZIPF_PADRAO = 0.99;
+    static final int DENTE_PADRAO = 1024;
+    private static final long PRIMO = 2147483647L;   // embaralha o ranking do zipf
+
+    private final String distribuicao;
+    private final int universo;
+    private final int percentualAdicionar;
+    private final int percentualPesquisar;
+    private final Random rand;
+    private int dente = DENTE_PADRAO;
+    private long sequencia;
+
+    // constantes do zipf (método de Gray et al., "Quickly Generating Billion-Record Synthetic Databases")
+    private double expoente;
+    private double zetaN;
+    private double alfa;
+    private double eta;
+
+    /**
+     * @param distribuicao        uma das distribuições de chave (UNIFORME, ZIPF, ORDENADA, REVERSA, SERRA)
+     * @param universo            quantidade de chaves distintas
+     * @param percentualAdicionar percentual de operações ADICIONAR
+     * @param percentualPesquisar percentual de operações PESQUISAR (o restante é REMOVER)
+     * @param semente             semente do gerador pseudoaleatório
+     */
+    public GeradorDeCarga(String distribuicao, int universo, int percentualAdicionar, int percentualPesquisar, long semente) {
+        if (universo <= 0) {
+            throw new IllegalArgumentException("universo deve ser positivo: " + universo);
+        }
+        if (percentualAdicionar < 0 || percentualPesquisar < 0 || percentualAdicionar + percentualPesquisar > 100) {
+            throw new IllegalArgumentException("percentuais inválidos: " + percentualAdicionar + "/" + percentualPesquisar);
+        }
+        switch (distribuicao) {
+            case UNIFORME: case ZIPF: case ORDENADA: case REVERSA: case SERRA:
+                break;
+            default:
+                throw new IllegalArgumentException("distribuição desconhecida: " + distribuicao);
+        }
+        this.distribuicao = distribuicao;
+        this.universo = universo;
+        this.percentualAdicionar = percentualAdicionar;
+        this.percentualPesquisar = percentualPesquisar;
+        this.rand = new Random(semente);
+        if (distribuicao.equals(ZIPF)) {
+            setExpoenteZipf(EXPOENTE_ZIPF_PADRAO);
+        }
+    }
+
+    /**
+     * Altera o expoente da distribuição zipf (o padrão é 0.99). Custa O(universo).
+     */
+    public void setExpoenteZipf(double expoente) {
+        if (expoente <= 0 || expoente == 1) {
+            throw new IllegalArgumentException("expoente deve ser positivo e diferente de 1: " + expoente);
+        }
+        this.expoente = expoente;
+        zetaN = zeta(universo, expoente);
+        alfa = 1.0 / (1.0 - expoente);
+        eta = (1 - Math.pow(2.0 / universo, 1 - expoente)) / (1 - zeta(2, expoente) / zetaN);
+    }
+
+    /**
+     * Altera o tamanho das subidas da distribuição serra (o padrão é 1024).
+     */
+    public void setDente(int dente) {
+        if (dente < 2) {
+            throw new IllegalArgumentException("dente deve ser pelo menos 2: " + dente);
+        }
+        this.dente = dente;
+    }
+
+    private static double zeta(long n, double expoente) {
+        double soma = 0;
+        for (long i = 1; i <= n; i++) {
+            soma += 1 / Math.pow(i, expoente);
+        }
+        return soma;
+    }
+
+    /**
+     * Sorteia o tipo da próxima operação.
+     */
+    public byte proximaOperacao() {
+        int sorteio = rand.nextInt(100);
+        if (sorteio < percentualAdicionar) return ADICIONAR;
+        if (sorteio < percentualAdicionar + percentualPesquisar) return PESQUISAR;
+        return REMOVER;
+    }
+
+    /**
+     * Gera a próxima chave da distribuição, entre 0 e universo-1.
+     */
+    public int proximaChave() {
+        long i = sequencia++;
+        switch (distribuicao) {
+            case UNIFORME:
+                return rand.nextInt(universo);
+            case ZIPF:
+                return (int) ((proximoRankZipf() * PRIMO) % universo);
+            case ORDENADA:
+                return (int) (i % universo);
+            case REVERSA:
+                return universo - 1 - (int) (i % universo);
+            default: // SERRA
+                long inicioDente = (i / dente) * (dente / 2);
+                return (int) ((inicioDente + i % dente) % universo);
+        }
+    }
+
+    private long proximoRankZipf() {
+        double u = rand.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) return 0;
+        if (uz < 1 + Math.pow(0.5, expoente)) return 1;
+        long rank = (long) (universo * Math.pow(eta * u - eta + 1, alfa));
+        return Math.min(rank, universo - 1);
+    }
+
+    /**
+     * Gera uma carga com a quantidade de operações pedida.
+     */
+    public RastroDeOperacoes gerar(int operacoes) {
+        RastroDeOperacoes rastro = new RastroDeOperacoes(operacoes);
+        for (int i = 0; i < operacoes; i++) {
+            byte tipo = proximaOperacao();
+            rastro.gravar(tipo, MATRICULA_BASE + proximaChave());
+        }
+        return rastro;
+    }
+}
@@ -0,0 +1,229 @@
+package app;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+import lib.BinTreeInterface;
+
+/**
+ *
+ * Sequência de operações (tipo e chave inteira) que pode ser gravada de uma execução
+ * real sobre uma árvore de alunos (com o Gravador, que grava a matrícula), gerada
+ * (com o GeradorDeCarga), salva em arquivo e reproduzida medindo a latência de cada
+ * operação. reproduzir(arv) recria os alunos pela matrícula, então só faz sentido em
+ * árvores de alunos ordenadas por matrícula; para outros tipos ou critérios de ordem,
+ * reproduzir(arv, elemento) recebe a função que cria o elemento de cada chave.
+ *
+ * Formato do arquivo: o int MAGICO, a quantidade de operações e, para cada operação,
+ * um byte com o tipo e um int com a matrícula.
+ */
+public class RastroDeOperacoes {
+
+    private static final int MAGICO = 0x52415354; // "RAST"
+    private static final int CAPACIDADE_MAXIMA_INICIAL = 1 << 16;
+
+    private byte[] tipos;
+    private int[] matriculas;
+    private int tamanho;
+
+    public RastroDeOperacoes() {
+        this(1024);
+    }
+
+    /**
+     * @param capacidade quantidade de operações para a qual os vetores já são alocados
+     */
+    public RastroDeOperacoes(int capacidade) {
+        tipos = new byte[Math.max(capacidade, 1)];
+        matriculas = new int[Math.max(capacidade, 1)];
+    }
+
+    /**
+     * Acrescenta uma operação ao final do rastro.
+     *
+     * @param tipo      GeradorDeCarga.ADICIONAR, PESQUISAR ou REMOVER
+     * @param matricula matrícula do aluno usado na operação
+     */
+    public synchronized void gravar(byte tipo, int matricula) {
+        if (tamanho == tipos.length) {
+            tipos = Arrays.copyOf(tipos, tamanho * 2);
+            matriculas = Arrays.copyOf(matriculas, tamanho * 2);
+        }
+        tipos[tamanho] = tipo;
+        matriculas[tamanho] = matricula;
+        tamanho++;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public byte tipo(int i) {
+        return tipos[i];
+    }
+
+    public int matricula(int i) {
+        return matriculas[i];
+    }
+
+    /**
+     * Salva o rastro no arquivo (sobrescreve).
+     */
+    public void salvar(Path arquivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo), 1 << 16))) {
+            out.writeInt(MAGICO);
+            out.writeInt(tamanho);
+            for (int i = 0; i < tamanho; i++) {
+                out.writeByte(tipos[i]);
+                out.writeInt(matriculas[i]);
+            }
+        }
+    }
+
+    /**
+     * Lê um rastro salvo por salvar.
+     *
+     * @throws IOException se o arquivo não for um rastro válido e completo
+     */
+    public static RastroDeOperacoes carregar(Path arquivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16))) {
+            if (in.readInt() != MAGICO) {
+                throw new IOException("arquivo não é um rastro de operações: " + arquivo);
+            }
+            int n = in.readInt();
+            if (n < 0) {
+                throw new IOException("quantidade de operações inválida: " + n);
+            }
+            // os vetores crescem conforme as operações são lidas: uma quantidade
+            // corrompida termina em EOFException, não em uma alocação enorme
+            RastroDeOperacoes rastro = new RastroDeOperacoes(Math.min(n, CAPACIDADE_MAXIMA_INICIAL));
+            for (int i = 0; i < n; i++) {
+                byte tipo = in.readByte();
+                if (tipo != GeradorDeCarga.ADICIONAR && tipo != GeradorDeCarga.PESQUISAR
+                        && tipo != GeradorDeCarga.REMOVER) {
+                    throw new IOException("operação " + i + " com tipo inválido: " + tipo);
+                }
+                rastro.gravar(tipo, in.readInt());
+            }
+            return rastro;
+        }
+    }
+
+    /**
+     * Reproduz o rastro em uma árvore de alunos ordenada por matrícula: cada chave vira
+     * um Aluno com aquela matrícula.
+     *
+     * @see #reproduzir(BinTreeInterface, IntFunction)
+     */
+    public long[] reproduzir(BinTreeInterface<Aluno> arv) {
+        return reproduzir(arv, matricula -> new Aluno(matricula, "Aluno"));
+    }
+
+    /**
+     * Executa as operações do rastro na árvore, na ordem gravada, e retorna a latência
+     * de cada uma em nanossegundos. Os elementos são criados antes da medição, então a
+     * latência é só a da árvore (mais o custo de System.nanoTime, algumas dezenas de ns).
+     *
+     * @param arv      árvore de qualquer tipo
+     * @param elemento cria, a partir da chave gravada, um elemento que a árvore ordene
+     *                 por aquela chave (chaves iguais devem gerar elementos iguais)
+     * @return latência de cada operação, na ordem do rastro
+     */
+    public <T> long[] reproduzir(BinTreeInterface<T> arv, IntFunction<T> elemento) {
+        @SuppressWarnings("unchecked")
+        T[] elementos = (T[]) new Object[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            elementos[i] = elemento.apply(matriculas[i]);
+        }
+        long[] latencias = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            long inicio = System.nanoTime();
+            switch (tipos[i]) {
+                case GeradorDeCarga.ADICIONAR:
+                    arv.adicionar(elementos[i]);
+                    break;
+                case GeradorDeCarga.PESQUISAR:
+                    arv.pesquisar(elementos[i]);
+                    break;
+                default:
+                    arv.remover(elementos[i]);
+            }
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        return latencias;
+    }
+
+    /**
+     * Retorna o percentil p (entre 0 e 100) de um vetor de latências já ordenado.
+     */
+    public static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))];
+    }
+
+    /**
+     * Envolve uma árvore de alunos e grava no rastro cada adicionar, pesquisar e remover
+     * feito por ela, sem mudar o comportamento. Serve para capturar o padrão de acesso
+     * de uma execução real e reproduzi-lo depois.
+     */
+    public static class Gravador implements BinTreeInterface<Aluno> {
+        private final BinTreeInterface<Aluno> arv;
+        private final RastroDeOperacoes rastro;
+
+        public Gravador(BinTreeInterface<Aluno> arv, RastroDeOperacoes rastro) {
+            this.arv = arv;
+            this.rastro = rastro;
+        }
+
+        @Override
+        public void adicionar(Aluno novoValor) {
+            rastro.gravar(GeradorDeCarga.ADICIONAR, novoValor.getMatricula());
+            arv.adicionar(novoValor);
+        }
+
+        @Override
+        public Aluno pesquisar(Aluno valor) {
+            rastro.gravar(GeradorDeCarga.PESQUISAR, valor.getMatricula());
+            return arv.pesquisar(valor);
+        }
+
+        @Override
+        public Aluno pesquisar(Aluno valor, Comparator<Aluno> comparador) {
+            return arv.pesquisar(valor, comparador);
+        }
+
+        @Override
+        public Aluno remover(Aluno valor) {
+            rastro.gravar(GeradorDeCarga.REMOVER, valor.getMatricula());
+            return arv.remover(valor);
+        }
+
+        @Override
+        public int altura() {
+            return arv.altura();
+        }
+
+        @Override
+        public int quantidadeNos() {
+            return arv.quantidadeNos();
+        }
+
+        @Override
+        public String caminharEmNivel() {
+            return arv.caminharEmNivel();
+        }
+
+        @Override
+        public String caminharEmOrdem() {
+            return arv.caminharEmOrdem();
+        }
+    }
+}
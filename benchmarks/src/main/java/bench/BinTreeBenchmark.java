@@ -0,0 +1,188 @@
+package bench;
+
+import app.Aluno;
+import app.ComparadorAlunoPorMatricula;
+import app.ComparadorAlunoPorNome;
+import app.GeradorDeArvores;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lib.BinTree;
+import lib.BinTreeAVL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH de todas as operações da BinTreeInterface na BinTree e na BinTreeAVL.
+ *
+ * A árvore é montada uma vez por fork com n alunos inseridos na ordem dada pela
+ * distribuição:
+ * - sequencial: a ordem de GeradorDeArvores.geraAlunosDegenerada (matrículas crescentes);
+ * - balanceada: a ordem de GeradorDeArvores.geraAlunosPerfeitamenteBalanceada (pontos médios);
+ * - aleatoria: as mesmas matrículas embaralhadas.
+ * Os nomes e o embaralhamento vêm do parâmetro semente, então forks e execuções
+ * diferentes medem exatamente os mesmos dados.
+ *
+ * As matrículas do gerador são espaçadas de 2 em 2, de modo que as matrículas ímpares
+ * intercaladas nunca estão na árvore e servem de chaves ausentes.
+ *
+ * Os benchmarks que alteram a árvore desfazem a alteração na mesma invocação
+ * (adicionar de uma chave ausente seguido do remover dela, e vice-versa), para que
+ * a árvore medida tenha sempre os mesmos elementos; o tempo reportado é o do par.
+ * Na BinTree, que não rebalanceia, o elemento removido e adicionado de volta vira
+ * folha, então o formato da árvore muda aos poucos ao longo das iterações.
+ *
+ * Execução: java -jar benchmarks/target/benchmarks.jar -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinTreeBenchmark {
+
+    static final int MATRICULA_BASE = 2000000000;
+
+    @Param({"BinTree", "BinTreeAVL"})
+    public String arvore;
+
+    @Param({"sequencial", "balanceada", "aleatoria"})
+    public String distribuicao;
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    /** Semente dos nomes e do embaralhamento: fixa para comparar execuções. */
+    @Param({"42"})
+    public long semente;
+
+    private BinTree<Aluno> arv;
+    private Aluno[] presentes;
+    private Aluno[] ausentes;
+    private Aluno[] nomes;
+    private final Comparator<Aluno> porNome = new ComparadorAlunoPorNome();
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void montar() {
+        List<Aluno> gerados = gerar();
+        ComparadorAlunoPorMatricula porMatricula = new ComparadorAlunoPorMatricula();
+        arv = arvore.equals("BinTreeAVL") ? new BinTreeAVL<>(porMatricula) : new BinTree<>(porMatricula);
+
+        presentes = new Aluno[gerados.size()];
+        ausentes = new Aluno[gerados.size()];
+        nomes = new Aluno[gerados.size()];
+        for (int i = 0; i < gerados.size(); i++) {
+            Aluno a = gerados.get(i);
+            int deslocamento = a.getMatricula() - MATRICULA_BASE;
+            presentes[i] = new Aluno(MATRICULA_BASE + 2 * deslocamento, a.getNome());
+            ausentes[i] = new Aluno(MATRICULA_BASE + 2 * deslocamento + 1, a.getNome());
+            nomes[i] = new Aluno(0, a.getNome());
+            arv.adicionar(presentes[i]);
+        }
+
+        // as chaves são consultadas em ordem aleatória, e não na ordem de inserção
+        Random rand = new Random(7);
+        embaralhar(presentes, rand);
+        embaralhar(ausentes, rand);
+        embaralhar(nomes, rand);
+    }
+
+    /**
+     * Gera os alunos na ordem de inserção da distribuição escolhida. Os nomes (usados
+     * por pesquisarPorComparador) e o embaralhamento dependem só da semente.
+     */
+    private List<Aluno> gerar() {
+        GeradorDeArvores gerador = new GeradorDeArvores(semente);
+        switch (distribuicao) {
+            case "sequencial":
+                return gerador.geraAlunosDegenerada(n);
+            case "balanceada":
+                return gerador.geraAlunosPerfeitamenteBalanceada(0, n - 1);
+            case "aleatoria":
+                List<Aluno> alunos = gerador.geraAlunosPerfeitamenteBalanceada(0, n - 1);
+                Collections.shuffle(alunos, new Random(semente));
+                return alunos;
+            default:
+                throw new IllegalArgumentException("distribuição desconhecida: " + distribuicao);
+        }
+    }
+
+    private static void embaralhar(Aluno[] v, Random rand) {
+        for (int i = v.length - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            Aluno t = v[i];
+            v[i] = v[j];
+            v[j] = t;
+        }
+    }
+
+    private int proximo() {
+        int i = cursor;
+        cursor = i + 1 == presentes.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Aluno adicionar() {
+        Aluno a = ausentes[proximo()];
+        arv.adicionar(a);
+        return arv.remover(a);
+    }
+
+    @Benchmark
+    public Aluno remover() {
+        Aluno a = presentes[proximo()];
+        Aluno removido = arv.remover(a);
+        arv.adicionar(a);
+        return removido;
+    }
+
+    @Benchmark
+    public Aluno pesquisarPresente() {
+        return arv.pesquisar(presentes[proximo()]);
+    }
+
+    @Benchmark
+    public Aluno pesquisarAusente() {
+        return arv.pesquisar(ausentes[proximo()]);
+    }
+
+    @Benchmark
+    public Aluno pesquisarPorComparador() {
+        return arv.pesquisar(nomes[proximo()], porNome);
+    }
+
+    @Benchmark
+    public String caminharEmOrdem() {
+        return arv.caminharEmOrdem();
+    }
+
+    @Benchmark
+    public String caminharEmNivel() {
+        return arv.caminharEmNivel();
+    }
+
+    @Benchmark
+    public int quantidadeNos() {
+        return arv.quantidadeNos();
+    }
+
+    @Benchmark
+    public int altura() {
+        return arv.altura();
+    }
+}
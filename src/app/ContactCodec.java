@@ -0,0 +1,21 @@
+package app;
+
+import java.nio.ByteBuffer;
+import lib.CodecValor;
+
+public class ContactCodec implements CodecValor<Contact> {
+    @Override
+    public void escrever(Contact contact, ByteBuffer destino) {
+        CodecValor.escreverTexto(contact.getName(), destino);
+        CodecValor.escreverTexto(contact.getPhone(), destino);
+        CodecValor.escreverTexto(contact.getEmail(), destino);
+    }
+
+    @Override
+    public Contact ler(ByteBuffer origem) {
+        String name = CodecValor.lerTexto(origem);
+        String phone = CodecValor.lerTexto(origem);
+        String email = CodecValor.lerTexto(origem);
+        return new Contact(name, phone, email);
+    }
+}
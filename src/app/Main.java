@@ -1,13 +1,17 @@
 package app;
 
-import lib.BinTree;
+import lib.BinTreeMultiIndice;
 import java.util.Scanner;
 
 public class Main {
+    private static final int TAMANHO_PAGINA = 10;
+
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
-        BinTree<Contact> arvore = new BinTree<>(new ContactNameComparator());
+        BinTreeMultiIndice<Contact> arvore = new BinTreeMultiIndice<>(new ContactNameComparator());
         ContactPhoneComparator phoneComparator = new ContactPhoneComparator();
+        // índice por telefone: a opção 4 passa a ser O(log n) em vez de varrer a árvore
+        arvore.adicionarIndice(phoneComparator);
 
         int opcao;
 
@@ -37,7 +41,17 @@ public class Main {
 
                 case 2 -> {
                     System.out.println("\n=== LISTA DE CONTATOS (IN-ORDER) ===");
-                    System.out.println(arvore.caminharEmOrdem());
+                    // lista página a página: cada página custa O(log n + TAMANHO_PAGINA)
+                    int total = arvore.quantidadeNos();
+                    for (int inicio = 0; inicio < total; inicio += TAMANHO_PAGINA) {
+                        for (Contact c : arvore.pagina(inicio, TAMANHO_PAGINA)) {
+                            System.out.print(c);
+                        }
+                        if (inicio + TAMANHO_PAGINA < total) {
+                            System.out.print("Enter para a próxima página, 0 para voltar: ");
+                            if (sc.nextLine().trim().equals("0")) break;
+                        }
+                    }
                 }
 
                 case 3 -> {
@@ -1,322 +1,1452 @@
-package lib;
-
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.Queue;
-
-/**
- * Implementação genérica de uma Árvore Binária de Busca (BST).
- *
- * @param <T> tipo dos elementos armazenados na árvore
- */
-public class BinTree<T> implements BinTreeInterface<T> {
-    protected NodeTree<T> root;              // nó raiz da árvore
-    protected Comparator<T> comparator;      // critério de comparação para ordenar os elementos
-
-    /**
-     * Construtor da árvore binária, recebe um Comparator para comparar os elementos.
-     *
-     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
-     */
-    public BinTree(Comparator<T> comparator) {
-        this.comparator = comparator;
-        this.root = null;
-    }
-
-    /**
-     * Insere um novo valor na árvore.
-     *
-     * @param newValue valor a ser adicionado
-     */
-    public void adicionar(T newValue) {
-        root = adicionarRecursivo(root, newValue);
-    }
-
-    /**
-     * Método recursivo auxiliar para inserir elementos na árvore.
-     *
-     * @param node  nó atual em análise
-     * @param value valor a ser inserido
-     * @return o nó atualizado após a inserção
-     */
-    private NodeTree<T> adicionarRecursivo(NodeTree<T> node, T value) {
-        if (node == null) {
-            return new NodeTree<T>(value);
-        }
-
-        int comp = comparator.compare(value, node.getValue());
-        if (comp < 0) {
-            // insere à esquerda se o valor for menor
-            node.setChildLeft(adicionarRecursivo(node.getChildLeft(), value));
-        } else if (comp > 0) {
-            // insere à direita se o valor for maior
-            node.setChildRight(adicionarRecursivo(node.getChildRight(), value));
-        }
-        // se for igual, não faz nada (evita duplicatas)
-        return node;
-    }
-
-    /**
-     * Pesquisa um valor na árvore usando o comparator da instância.
-     *
-     * @param value valor a ser pesquisado
-     * @return o valor encontrado ou null se não existir
-     */
-    public T pesquisar(T value) {
-        return pesquisarRecursivo(root, value, comparator);
-    }
-
-    /**
-     * Pesquisa um valor na árvore usando um comparator específico.
-     *
-     * @param value valor a ser pesquisado
-     * @param comp  Comparator utilizado para a busca
-     * @return o valor encontrado ou null se não existir
-     */
-    public T pesquisar(T value, Comparator<T> comp) {
-        return pesquisarComparadorExt(this.root, value, comp);
-    }
-
-    private T pesquisarComparadorExt(NodeTree<T> r, T value, Comparator c){
-        if (r == null)
-            return null;
-        else if (c.compare(value, r.getValue()) == 0)
-            return r.getValue();
-        else {
-            T noEsq = pesquisarComparadorExt(r.getChildLeft(), value, c);
-            T noDir = pesquisarComparadorExt(r.getChildRight(), value, c);
-
-            if (noEsq != null)
-                return noEsq;
-            else
-                return noDir;
-        }
-    }
-    
-
-    /**
-     * Método recursivo auxiliar para pesquisa.
-     *
-     * @param node  nó atual em análise
-     * @param value valor que estamos procurando
-     * @param cmp   comparator usado para comparar os elementos
-     * @return o valor encontrado ou null
-     */
-    private T pesquisarRecursivo(NodeTree<T> node, T value, Comparator<T> cmp) {
-        if (node == null) return null;
-
-        int comp = cmp.compare(value, node.getValue());
-        if (comp == 0) {
-            return node.getValue(); // valor encontrado
-        } else if (comp < 0) {
-            return pesquisarRecursivo(node.getChildLeft(), value, comparator);
-        }
-        return pesquisarRecursivo(node.getChildRight(), value, comparator);
-    }
-
-    /**
-     * Remove um valor da árvore.
-     *
-     * @param value valor a ser removido
-     * @return o valor removido ou null se não existir
-     */
-    public T remover(T value) {
-        ResultRemove<T> result = removerRecursivo(root, value, comparator);
-        root = result.newRoot; // atualiza a raiz caso tenha sido alterada
-        return result.removedValue;
-    }
-
-    /**
-     * Método recursivo auxiliar para remoção de nós.
-     *
-     * @param node  nó atual em análise
-     * @param value valor a ser removido
-     * @param cmp   comparator usado para comparar os elementos
-     * @return objeto ResultRemove contendo o novo nó raiz e o valor removido
-     */
-    private ResultRemove<T> removerRecursivo(NodeTree<T> node, T value, Comparator<T> cmp) {
-        if (node == null) return new ResultRemove<>(null, null);
-
-        int comp = cmp.compare(value, node.getValue());
-        if (comp < 0) {
-            // busca na subárvore esquerda
-            ResultRemove<T> result = removerRecursivo(node.getChildLeft(), value, cmp);
-            node.setChildLeft(result.newRoot);
-            return new ResultRemove<>(node, result.removedValue);
-        } else if (comp > 0) {
-            // busca na subárvore direita
-            ResultRemove<T> res = removerRecursivo(node.getChildRight(), value, cmp);
-            node.setChildRight(res.newRoot);
-            return new ResultRemove<>(node, res.removedValue);
-        } else {
-            // Nó encontrado
-            T removed = node.getValue();
-
-            // caso 1: sem filho à esquerda
-            if (node.getChildLeft() == null) return new ResultRemove<>(node.getChildRight(), removed);
-
-            // caso 2: sem filho à direita
-            if (node.getChildRight() == null) return new ResultRemove<>(node.getChildLeft(), removed);
-
-            // caso 3: dois filhos (substitui pelo sucessor (menor da subárvore direita))
-            NodeTree<T> succ = findMin(node.getChildRight());
-            node.setValue(succ.getValue()); // copia valor do sucessor
-            ResultRemove<T> result = removerRecursivo(node.getChildRight(), succ.getValue(), cmp);
-            node.setChildRight(result.newRoot);
-            return new ResultRemove<>(node, removed);
-        }
-    }
-
-    /**
-     * Classe auxiliar que armazena o resultado de uma remoção.
-     *
-     * @param <T> tipo do valor armazenado na árvore
-     */
-    private static class ResultRemove<T> {
-        NodeTree<T> newRoot;   // nova raiz (subárvore ajustada após remoção)
-        T removedValue;        // valor que foi efetivamente removido
-
-        ResultRemove(NodeTree<T> root, T value) {
-            this.newRoot = root;
-            this.removedValue = value;
-        }
-    }
-
-    /**
-     * Encontra o nó de menor valor em uma subárvore.
-     *
-     * @param node nó inicial da subárvore
-     * @return o nó com o menor valor
-     */
-    private NodeTree<T> findMin(NodeTree<T> node) {
-        NodeTree<T> current = node;
-        while (current.getChildLeft() != null) {
-            current = current.getChildLeft();
-        }
-        return current;
-    }
-
-
-    /**
-     * Retorna a travessia in-order como uma string (útil para testes ou exibição).
-     * @return String com os elementos em ordem
-     */
-    public String caminharEmOrdem() {
-        StringBuilder sb = new StringBuilder();
-        buildEmOrdemString(root, sb);
-        return sb.toString().trim();
-    }
-
-    /**
-     * Método auxiliar que percorre a árvore em ordem (in-order) e
-     * constrói uma string com os valores dos nós, separados por espaço.
-     *
-     * @param node nó atual em análise
-     * @param sb   acumulador da string (StringBuilder)
-     */
-    private void buildEmOrdemString(NodeTree<T> node, StringBuilder sb) {
-        if (node != null) {
-            // Visita recursivamente a subárvore esquerda
-            buildEmOrdemString(node.getChildLeft(), sb);
-
-            // Adiciona o valor do nó atual
-            sb.append(node.getValue()).append(" ");
-
-            // Visita recursivamente a subárvore direita
-            buildEmOrdemString(node.getChildRight(), sb);
-        }
-    }
-
-    /**
-     * Percorre a árvore em nível (Breadth-First pesquisar) e retorna uma string
-     * com os valores de cada nó separados por " \n ", iniciando com "[" e terminando com "]".
-     *
-     * @return string formatada com os valores da árvore em ordem de nível
-     */
-    public String caminharEmNivel() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-
-        if (root != null) {
-            Queue<NodeTree<T>> queue = new LinkedList<>(); // Fila para BFS
-            queue.add(root);
-
-            while (!queue.isEmpty()) {
-                // Remove o próximo nó da fila
-                NodeTree<T> current = queue.poll();
-
-                // Adiciona seu valor à string com separador " \n "
-                sb.append(current.getValue().toString()).append(" \n ");
-
-                // Adiciona os filhos à fila (esquerdo depois direito)
-                if (current.getChildLeft() != null) {
-                    queue.add(current.getChildLeft());
-                }
-                if (current.getChildRight() != null) {
-                    queue.add(current.getChildRight());
-                }
-            }
-
-            // Remove o último " \n " extra
-            if (sb.length() >= 3) {
-                sb.setLength(sb.length() - 3);
-            }
-        }
-
-        sb.append("]");
-        return sb.toString();
-    }
-
-
-
-    /**
-     * Conta o número total de nós na árvore.
-     * @return número total de nós
-     */
-    public int quantidadeNos() {
-        return quantidadeNos(root);
-    }
-
-    private int quantidadeNos(NodeTree<T> node) {
-        if (node == null) return 0;
-        return 1 + quantidadeNos(node.getChildLeft()) + quantidadeNos(node.getChildRight());
-    }
-
-    /**
-     * Calcula a altura da árvore.
-     * @return altura (nível mais profundo da árvore)
-     */
-    public int altura() {
-        if (root == null) {
-            throw new IllegalStateException("Árvore vazia: não é possível calcular a altura.");
-        }
-        return altura(root);
-    }
-
-    private int altura(NodeTree<T> node) {
-        if (node == null){
-            return -1;
-        }// Altura de árvore vazia é -1
-        int left = altura(node.getChildLeft());
-        int right = altura(node.getChildRight());
-        return 1 + Math.max(left, right);
-    }
-}
-
-//    // Método para percorrer a árvore em ordem
-//    public void inOrderTraversal() {
-//        inOrderTraversal(root);
-//    }
-//
-//    /**
-//     * Classe auxiliar que armazena o resultado de uma remoção.
-//     *
-//     * @param node nó que irá representar o ponto de partida ao percorrer a árvore (in-ordem)
-//     */
-//    private void inOrderTraversal(NodeTree<T> node) {
-//        if (node != null) {
-//            inOrderTraversal(node.getChildLeft());          // Visita subárvore esquerda
-//            System.out.print(node.getValue() + " ");        // Visita nó atual
-//            inOrderTraversal(node.getChildRight());         // Visita subárvore direita
-//        }
-//    }
\ No newline at end of file
+package lib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementação genérica de uma Árvore Binária de Busca (BST).
+ *
+ * Todas as operações são iterativas: a descida guarda o caminho percorrido em um
+ * vetor e a subida (atualização de alturas e balanceamento) percorre esse vetor de
+ * trás para frente. Assim a árvore funciona com qualquer formato, inclusive
+ * degenerada com milhões de nós, sem depender do tamanho da pilha da JVM.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTree<T> implements BinTreeInterface<T>, Iterable<T> {
+    protected NodeTree<T> root;              // nó raiz da árvore
+    protected Comparator<T> comparator;      // critério de comparação para ordenar os elementos
+    private NodeTree<T>[] caminho;           // caminho da raiz até o nó alterado (reaproveitado entre alterações)
+    private PoolDeNos<T> pool;               // nós retirados, para reaproveitar (null = sem pool)
+    private MetricasArvore metricas;         // métricas de operação (null = desativadas)
+    private MetricasArvore.Contador<T> contador; // comparator que conta as comparações (com métricas ativas)
+
+    /**
+     * Acima desta altura as operações em lote (que são recursivas na altura da árvore)
+     * processam os elementos um a um. Só é atingida por BSTs muito desbalanceadas.
+     */
+    protected static final int ALTURA_MAXIMA_LOTE = 1000;
+
+    /**
+     * Construtor da árvore binária, recebe um Comparator para comparar os elementos.
+     *
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTree(Comparator<T> comparator) {
+        this.comparator = comparator;
+        this.root = null;
+    }
+
+    /**
+     * Insere um novo valor na árvore.
+     *
+     * @param newValue valor a ser adicionado
+     */
+    public void adicionar(T newValue) {
+        if (metricas != null) {
+            long comparacoes = contador.comparacoes();
+            long inicio = System.nanoTime();
+            inserir(newValue);
+            metricas.registrar(MetricasArvore.ADICIONAR, contador.comparacoes() - comparacoes, System.nanoTime() - inicio);
+            return;
+        }
+        inserir(newValue);
+    }
+
+    private void inserir(T newValue) {
+        if (root == null) {
+            root = alocarNo(newValue);
+            return;
+        }
+
+        NodeTree<T>[] path = reservarCaminho();
+        int depth = 0;
+        NodeTree<T> node = root;
+        while (true) {
+            path[depth++] = node;
+            int comp = comparator.compare(newValue, node.getValue());
+            if (comp < 0) {
+                // insere à esquerda se o valor for menor
+                if (node.getChildLeft() == null) {
+                    node.setChildLeft(alocarNo(newValue));
+                    break;
+                }
+                node = node.getChildLeft();
+            } else if (comp > 0) {
+                // insere à direita se o valor for maior
+                if (node.getChildRight() == null) {
+                    node.setChildRight(alocarNo(newValue));
+                    break;
+                }
+                node = node.getChildRight();
+            } else {
+                // se for igual, não faz nada (evita duplicatas)
+                limparCaminho(path, depth);
+                return;
+            }
+        }
+        subirAjustando(path, depth);
+    }
+
+    /**
+     * Cria o nó que guardará um novo valor. Subclasses que precisam de informação
+     * extra em cada nó (como a cor na BinTreeRB) sobrescrevem para criar o seu tipo de nó.
+     *
+     * @param value valor do nó
+     * @return nó folha com o valor
+     */
+    protected NodeTree<T> novoNo(T value) {
+        return new NodeTree<T>(value);
+    }
+
+    /**
+     * Ativa o modo pool: 'capacidade' nós são criados agora e, a partir daí, os nós
+     * retirados por remover e removerTodos voltam para o pool e são reaproveitados
+     * pelas inserções seguintes, em vez de virarem lixo. Com o pool dimensionado para
+     * o tamanho da árvore, uma carga estável de inserções e remoções não aloca nós.
+     * O pool guarda no máximo 'capacidade' nós livres; capacidade 0 desativa o pool.
+     *
+     * Com o pool ativo, nós retirados são reutilizados: iteradores, spliterators e
+     * streams não podem estar em uso durante alterações (o que já era exigido).
+     *
+     * @param capacidade quantidade de nós pré-alocados e máxima de nós livres guardados
+     */
+    public void usarPool(int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidade);
+        }
+        if (capacidade == 0) {
+            pool = null;
+            return;
+        }
+        pool = new PoolDeNos<>(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            pool.guardar(novoNo(null));
+        }
+    }
+
+    /**
+     * Ativa as métricas de operação (comparações, profundidade do caminho de busca,
+     * rotações e latência de adicionar, pesquisar e remover; ver MetricasArvore).
+     * Enquanto ativas, o comparator da árvore é envolvido por um que conta as
+     * comparações. Se já estiverem ativas, retorna as mesmas métricas.
+     *
+     * @return as métricas, para consultar com retrato()
+     */
+    public MetricasArvore ativarMetricas() {
+        if (metricas == null) {
+            contador = new MetricasArvore.Contador<>(comparator);
+            comparator = contador;
+            metricas = new MetricasArvore(contador);
+        }
+        return metricas;
+    }
+
+    /**
+     * Desativa as métricas e volta a usar o comparator original.
+     */
+    public void desativarMetricas() {
+        if (metricas != null) {
+            comparator = contador.original;
+            contador = null;
+            metricas = null;
+        }
+    }
+
+    /**
+     * @return as métricas ativas, ou null se estiverem desativadas
+     */
+    public MetricasArvore getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * @return o comparator da árvore sem o contador das métricas (usado por novaArvore,
+     *         para que as árvores criadas não entrem nas métricas desta)
+     */
+    protected Comparator<T> comparadorOriginal() {
+        return contador != null ? contador.original : comparator;
+    }
+
+    /**
+     * @return comparações contadas pelas métricas até agora (0 se estiverem
+     *         desativadas); usado por subclasses que medem as próprias operações
+     */
+    protected final long comparacoesContadas() {
+        return contador != null ? contador.comparacoes() : 0;
+    }
+
+    /**
+     * Conta uma rotação do caso indicado (MetricasArvore.LL, RR, LR ou RL), se as
+     * métricas estiverem ativas. Chamado pelas subclasses balanceadas.
+     */
+    protected final void contarRotacao(int caso) {
+        if (metricas != null) {
+            metricas.registrarRotacao(caso);
+        }
+    }
+
+    /**
+     * Obtém um nó para um novo valor: do pool, se houver um livre, ou de novoNo.
+     */
+    private NodeTree<T> alocarNo(T value) {
+        if (pool != null) {
+            NodeTree<T> node = pool.retirar();
+            if (node != null) {
+                node.reiniciar(value);
+                return node;
+            }
+        }
+        return novoNo(value);
+    }
+
+    /**
+     * Devolve ao pool (se ativo) um nó que saiu da árvore.
+     */
+    private void liberarNo(NodeTree<T> node) {
+        if (pool != null) {
+            pool.guardar(node);
+        }
+    }
+
+    //-----------------------------------------------------------------
+    // Construção em Lote
+    //-----------------------------------------------------------------
+
+    /**
+     * Substitui o conteúdo da árvore pelos elementos de um iterador já ordenado pelo
+     * comparator da árvore, montando uma árvore perfeitamente balanceada em O(n)
+     * (n - 1 comparações para validar a ordem, nenhuma rotação). Elementos iguais
+     * consecutivos são descartados, como em adicionar.
+     *
+     * @param sorted elementos em ordem crescente
+     * @throws IllegalArgumentException se os elementos não estiverem em ordem
+     */
+    public void buildFrom(Iterator<? extends T> sorted) {
+        ArrayList<T> values = new ArrayList<>();
+        T previous = null;
+        while (sorted.hasNext()) {
+            T value = sorted.next();
+            if (!values.isEmpty()) {
+                int comp = comparator.compare(previous, value);
+                if (comp == 0) continue; // duplicata
+                if (comp > 0) {
+                    throw new IllegalArgumentException("Elementos fora de ordem: " + previous + " antes de " + value);
+                }
+            }
+            values.add(value);
+            previous = value;
+        }
+        construirBalanceada(values.toArray(), values.size());
+    }
+
+    /**
+     * Substitui o conteúdo da árvore pelos elementos de uma coleção em qualquer
+     * ordem: ordena uma cópia (O(n log n)) e monta a árvore com buildFrom.
+     *
+     * @param values elementos a serem carregados
+     */
+    public void buildFromUnsorted(Collection<? extends T> values) {
+        ArrayList<T> sorted = new ArrayList<>(values);
+        sorted.sort(comparator);
+        buildFrom(sorted.iterator());
+    }
+
+    /**
+     * Substitui o conteúdo da árvore pelos n primeiros valores do vetor, que devem
+     * estar em ordem estritamente crescente (não são feitas comparações). A raiz de
+     * cada subárvore é o elemento do meio, então os tamanhos das subárvores de um
+     * mesmo nó diferem no máximo em um e o resultado também é uma AVL válida.
+     *
+     * @param values valores ordenados e sem duplicatas
+     * @param n      quantidade de valores usados
+     */
+    protected void construirBalanceada(Object[] values, int n) {
+        root = construirBalanceada(values, 0, n - 1);
+    }
+
+    /**
+     * Monta uma subárvore balanceada com values[lo..hi] (ordenados, sem duplicatas)
+     * sem alterar a raiz da árvore.
+     *
+     * @return a raiz da subárvore, ou null se o trecho for vazio
+     */
+    @SuppressWarnings("unchecked")
+    NodeTree<T> construirBalanceada(Object[] values, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        NodeTree<T> node = alocarNo((T) values[mid]);
+        // profundidade da recursão limitada a log2(n) + 1
+        node.setChildLeft(construirBalanceada(values, lo, mid - 1));
+        node.setChildRight(construirBalanceada(values, mid + 1, hi));
+        atualizarNo(node);
+        return node;
+    }
+
+    //-----------------------------------------------------------------
+    // Inserção e Remoção em Lote
+    //-----------------------------------------------------------------
+
+    /**
+     * Adiciona um lote de elementos em uma única passada pela árvore: o lote é
+     * ordenado e, a partir da raiz, cada nó reparte o lote entre as suas duas
+     * subárvores (busca binária) e é religado aos resultados com juntar(). Trechos do
+     * lote que chegam a uma subárvore vazia viram subárvores balanceadas de uma vez.
+     * Na BinTreeAVL juntar() rebalanceia, então o resultado continua AVL.
+     *
+     * @param valores elementos a serem adicionados
+     * @return quantidade de elementos inseridos (os demais eram duplicatas)
+     */
+    @Override
+    public int adicionarTodos(Collection<? extends T> valores) {
+        int antes = tamanhoNo(root);
+        if (alturaNo(root) > ALTURA_MAXIMA_LOTE) {
+            // árvore muito alta (degenerada): evita a recursão e insere um a um
+            return BinTreeInterface.super.adicionarTodos(valores);
+        }
+        Object[] lote = ordenarLote(valores);
+        root = unirOrdenado(root, lote, 0, lote.length - 1);
+        return tamanhoNo(root) - antes;
+    }
+
+    /**
+     * Remove um lote de elementos em uma única passada pela árvore, repartindo o lote
+     * ordenado entre as subárvores como em adicionarTodos. Cada nó removido é
+     * substituído pela junção das suas subárvores (já processadas).
+     *
+     * @param valores chaves dos elementos a serem removidos
+     * @return quantidade de elementos removidos
+     */
+    @Override
+    public int removerTodos(Collection<? extends T> valores) {
+        int antes = tamanhoNo(root);
+        if (alturaNo(root) > ALTURA_MAXIMA_LOTE) {
+            return BinTreeInterface.super.removerTodos(valores);
+        }
+        Object[] lote = ordenarLote(valores);
+        root = diferencaOrdenada(root, lote, 0, lote.length - 1);
+        return antes - tamanhoNo(root);
+    }
+
+    /**
+     * Ordena o lote pelo comparator da árvore e descarta as repetições.
+     */
+    @SuppressWarnings("unchecked")
+    Object[] ordenarLote(Collection<? extends T> valores) {
+        Object[] lote = valores.toArray();
+        Arrays.sort(lote, (a, b) -> comparator.compare((T) a, (T) b));
+        int n = 0;
+        for (int i = 0; i < lote.length; i++) {
+            if (n == 0 || comparator.compare((T) lote[n - 1], (T) lote[i]) != 0) {
+                lote[n++] = lote[i];
+            }
+        }
+        return n == lote.length ? lote : Arrays.copyOf(lote, n);
+    }
+
+    /**
+     * Incorpora lote[lo..hi] (ordenado, sem repetições) à subárvore de node.
+     *
+     * @return a raiz da subárvore resultante
+     */
+    private NodeTree<T> unirOrdenado(NodeTree<T> node, Object[] lote, int lo, int hi) {
+        if (lo > hi) return node;
+        if (node == null) {
+            return construirBalanceada(lote, lo, hi);
+        }
+        int pos = buscaBinaria(lote, lo, hi, node.getValue());
+        int fimEsq = pos >= 0 ? pos - 1 : -pos - 2;     // último índice menor que o nó
+        int iniDir = pos >= 0 ? pos + 1 : -pos - 1;     // primeiro índice maior que o nó
+        // se pos >= 0 o valor já existe: o elemento do lote é ignorado
+        NodeTree<T> left = unirOrdenado(node.getChildLeft(), lote, lo, fimEsq);
+        NodeTree<T> right = unirOrdenado(node.getChildRight(), lote, iniDir, hi);
+        return juntar(left, node, right);
+    }
+
+    /**
+     * Retira da subárvore de node os elementos iguais aos de lote[lo..hi].
+     *
+     * @return a raiz da subárvore resultante
+     */
+    private NodeTree<T> diferencaOrdenada(NodeTree<T> node, Object[] lote, int lo, int hi) {
+        if (node == null || lo > hi) return node;
+        int pos = buscaBinaria(lote, lo, hi, node.getValue());
+        int fimEsq = pos >= 0 ? pos - 1 : -pos - 2;
+        int iniDir = pos >= 0 ? pos + 1 : -pos - 1;
+        NodeTree<T> left = diferencaOrdenada(node.getChildLeft(), lote, lo, fimEsq);
+        NodeTree<T> right = diferencaOrdenada(node.getChildRight(), lote, iniDir, hi);
+        if (pos >= 0) {
+            liberarNo(node);
+            return juntar(left, right); // o nó está no lote: é removido
+        }
+        return juntar(left, node, right);
+    }
+
+    /**
+     * Busca binária de value em lote[lo..hi].
+     *
+     * @return o índice de value, ou -(ponto de inserção) - 1 se não estiver no lote
+     */
+    @SuppressWarnings("unchecked")
+    private int buscaBinaria(Object[] lote, int lo, int hi, T value) {
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int comp = comparator.compare((T) lote[mid], value);
+            if (comp < 0) {
+                lo = mid + 1;
+            } else if (comp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Monta uma subárvore com raiz 'middle', sabendo que todos os elementos de 'left'
+     * são menores e todos os de 'right' são maiores que ele. Na BST simples basta
+     * ligar os filhos; a BinTreeAVL sobrescreve para juntar subárvores de alturas
+     * muito diferentes mantendo o balanceamento.
+     *
+     * @param left   subárvore com os elementos menores (pode ser nula)
+     * @param middle nó do meio (os filhos atuais são descartados)
+     * @param right  subárvore com os elementos maiores (pode ser nula)
+     * @return a raiz da subárvore resultante
+     */
+    protected NodeTree<T> juntar(NodeTree<T> left, NodeTree<T> middle, NodeTree<T> right) {
+        middle.setChildLeft(left);
+        middle.setChildRight(right);
+        atualizarNo(middle);
+        return middle;
+    }
+
+    /**
+     * Junta duas subárvores sem um nó do meio: retira o menor nó de 'right' e o
+     * usa como raiz de juntar(left, menor, right).
+     *
+     * @return a raiz da subárvore resultante
+     */
+    protected NodeTree<T> juntar(NodeTree<T> left, NodeTree<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        NodeTree<T> min = findMin(right);
+        return juntar(left, min, removerMinimo(right));
+    }
+
+    /**
+     * Retira o menor nó de uma subárvore, reajustando os nós do caminho.
+     *
+     * @return a raiz da subárvore sem o menor nó
+     */
+    private NodeTree<T> removerMinimo(NodeTree<T> node) {
+        if (node.getChildLeft() == null) {
+            return node.getChildRight();
+        }
+        node.setChildLeft(removerMinimo(node.getChildLeft()));
+        return reajustar(node);
+    }
+
+    //-----------------------------------------------------------------
+    // Divisão, Junção e Operações de Conjunto
+    //-----------------------------------------------------------------
+
+    /**
+     * Divide a árvore pela chave: esta árvore fica com os elementos menores que
+     * chave e os elementos maiores ou iguais são movidos para a árvore retornada
+     * (do mesmo tipo desta). Custa O(altura).
+     *
+     * @param chave ponto de divisão
+     * @return nova árvore com os elementos maiores ou iguais a chave
+     */
+    public BinTree<T> split(T chave) {
+        BinTree<T> maiores = novaArvore();
+        if (alturaNo(root) > ALTURA_MAXIMA_LOTE) {
+            // árvore muito alta: move os elementos um a um
+            List<T> tail = new ArrayList<>();
+            range(chave, null).forEachRemaining(tail::add);
+            for (T value : tail) {
+                remover(value);
+            }
+            maiores.buildFrom(tail.iterator());
+            return maiores;
+        }
+        OperacoesConjunto.Divisao<T> d = new OperacoesConjunto<>(this).dividir(root, chave);
+        root = d.menores;
+        maiores.root = d.igual == null ? d.maiores : juntar(null, d.igual, d.maiores);
+        return maiores;
+    }
+
+    /**
+     * Move para o fim desta árvore todos os elementos de 'maiores', que fica vazia.
+     * Todos os elementos de 'maiores' devem ser maiores que o último desta árvore.
+     * Custa O(altura).
+     *
+     * @param maiores árvore com os elementos a serem anexados
+     * @throws IllegalArgumentException se algum elemento de 'maiores' não for maior que last()
+     */
+    public void join(BinTree<T> maiores) {
+        verificarOutra(maiores);
+        if (maiores.root == null) return;
+        if (root != null && comparator.compare(last(), maiores.first()) >= 0) {
+            throw new IllegalArgumentException("join: os elementos da segunda árvore devem ser maiores que os desta.");
+        }
+        if (alturaNo(root) > ALTURA_MAXIMA_LOTE || maiores.alturaNo(maiores.root) > ALTURA_MAXIMA_LOTE) {
+            adicionarTodos(maiores.stream().collect(Collectors.toList()));
+        } else {
+            root = juntar(root, maiores.root);
+        }
+        maiores.root = null;
+    }
+
+    /**
+     * Adiciona a esta árvore os elementos de 'outra' (que não é alterada). Elementos
+     * já existentes mantêm o valor desta árvore. Em árvores balanceadas custa
+     * O(m log(n/m + 1) + k), onde m é o tamanho da menor árvore e k a quantidade de
+     * elementos de 'outra' que não estavam nesta: só os nós que entram no resultado
+     * são copiados de 'outra'.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator
+     */
+    public void uniao(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.UNIAO, false);
+    }
+
+    /**
+     * Mantém nesta árvore apenas os elementos que também estão em 'outra'. Em árvores
+     * balanceadas custa O(m log(n/m + 1)), onde m é o tamanho da menor árvore; nenhum
+     * nó de 'outra' é copiado.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator (não é alterada)
+     */
+    public void intersecao(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.INTERSECAO, false);
+    }
+
+    /**
+     * Retira desta árvore os elementos que estão em 'outra'. Em árvores balanceadas
+     * custa O(m log(n/m + 1)), onde m é o tamanho da menor árvore; nenhum nó de
+     * 'outra' é copiado.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator (não é alterada)
+     */
+    public void diferenca(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.DIFERENCA, false);
+    }
+
+    /**
+     * Versão de uniao que resolve as subárvores em paralelo no ForkJoinPool comum.
+     * O comparator deve poder ser usado por várias threads ao mesmo tempo.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator (não é alterada)
+     */
+    public void uniaoParalela(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.UNIAO, true);
+    }
+
+    /**
+     * Versão de intersecao que resolve as subárvores em paralelo.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator (não é alterada)
+     */
+    public void intersecaoParalela(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.INTERSECAO, true);
+    }
+
+    /**
+     * Versão de diferenca que resolve as subárvores em paralelo.
+     *
+     * @param outra árvore ordenada pelo mesmo comparator (não é alterada)
+     */
+    public void diferencaParalela(BinTree<T> outra) {
+        combinar(outra, OperacoesConjunto.DIFERENCA, true);
+    }
+
+    private void combinar(BinTree<T> outra, int operacao, boolean paralelo) {
+        verificarOutra(outra);
+        if (alturaNo(root) > ALTURA_MAXIMA_LOTE || outra.alturaNo(outra.root) > ALTURA_MAXIMA_LOTE) {
+            // árvores muito altas: usa as operações em lote, que também evitam a recursão
+            List<T> outros = outra.stream().collect(Collectors.toList());
+            if (operacao == OperacoesConjunto.UNIAO) {
+                adicionarTodos(outros);
+            } else if (operacao == OperacoesConjunto.DIFERENCA) {
+                removerTodos(outros);
+            } else {
+                List<T> comuns = stream().filter(v -> outra.pesquisar(v) != null).collect(Collectors.toList());
+                buildFrom(comuns.iterator());
+            }
+            return;
+        }
+        // os nós de 'outra' são lidos e copiados só ao entrar no resultado; se 'outra'
+        // for esta própria árvore, divide-se uma cópia para não alterar o que é lido
+        boolean propria = outra == this;
+        NodeTree<T> b = propria ? OperacoesConjunto.copiar(root) : outra.root;
+        OperacoesConjunto<T> ops = new OperacoesConjunto<>(this, !propria);
+        root = paralelo ? ops.combinarParalelo(root, b, operacao) : ops.combinar(root, b, operacao);
+    }
+
+    /**
+     * Verifica se os nós de 'outra' podem ser ligados aos desta árvore em join e nas
+     * operações de conjunto. Na BinTree qualquer árvore serve; subclasses cujo juntar
+     * depende do tipo do nó sobrescrevem.
+     *
+     * @param outra árvore recebida pela operação
+     * @throws IllegalArgumentException se 'outra' não for compatível
+     */
+    protected void verificarOutra(BinTree<T> outra) {
+    }
+
+    /**
+     * Cria uma árvore vazia do mesmo tipo desta, com o mesmo comparator. Subclasses
+     * sobrescrevem para que split() devolva uma árvore do seu próprio tipo.
+     *
+     * @return nova árvore vazia
+     */
+    protected BinTree<T> novaArvore() {
+        return new BinTree<>(comparadorOriginal());
+    }
+
+    /**
+     * Pesquisa um valor na árvore usando o comparator da instância.
+     *
+     * @param value valor a ser pesquisado
+     * @return o valor encontrado ou null se não existir
+     */
+    public T pesquisar(T value) {
+        if (metricas != null) {
+            long comparacoes = contador.comparacoes();
+            long inicio = System.nanoTime();
+            T encontrado = buscar(value);
+            metricas.registrar(MetricasArvore.PESQUISAR, contador.comparacoes() - comparacoes, System.nanoTime() - inicio);
+            return encontrado;
+        }
+        return buscar(value);
+    }
+
+    private T buscar(T value) {
+        NodeTree<T> node = root;
+        while (node != null) {
+            int comp = comparator.compare(value, node.getValue());
+            if (comp == 0) {
+                return node.getValue(); // valor encontrado
+            }
+            node = comp < 0 ? node.getChildLeft() : node.getChildRight();
+        }
+        return null;
+    }
+
+    /**
+     * Pesquisa um valor na árvore usando um comparator específico.
+     * Como a árvore não está ordenada por esse comparator, a busca percorre os nós
+     * em pré-ordem (nó, subárvore esquerda, subárvore direita) e para no primeiro
+     * elemento encontrado.
+     *
+     * @param value valor a ser pesquisado
+     * @param comp  Comparator utilizado para a busca
+     * @return o valor encontrado ou null se não existir
+     */
+    public T pesquisar(T value, Comparator<T> comp) {
+        if (root == null) return null;
+
+        NodeTree<T>[] stack = novaPilha();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            NodeTree<T> node = stack[--top];
+            if (comp.compare(value, node.getValue()) == 0) {
+                return node.getValue();
+            }
+            // empilha a direita primeiro para que a esquerda seja visitada antes
+            if (node.getChildRight() != null) stack[top++] = node.getChildRight();
+            if (node.getChildLeft() != null) stack[top++] = node.getChildLeft();
+        }
+        return null;
+    }
+
+    /**
+     * Versão paralela de pesquisar(value, comp) para árvores grandes: divide a
+     * varredura entre as threads do ForkJoinPool comum e cancela as demais tarefas
+     * assim que algum elemento é encontrado. Se houver mais de um elemento igual,
+     * qualquer um deles pode ser retornado. A árvore não deve ser alterada durante a busca.
+     *
+     * @param value valor a ser pesquisado
+     * @param comp  Comparator utilizado para a busca
+     * @return um valor encontrado ou null se não existir
+     */
+    public T pesquisarParalelo(T value, Comparator<T> comp) {
+        return BuscaParalela.pesquisar(root, value, comp);
+    }
+
+    /**
+     * Retorna todos os elementos iguais a value segundo comp, em ordem, varrendo a
+     * árvore em paralelo. A árvore não deve ser alterada durante a busca.
+     *
+     * @param value valor a ser pesquisado
+     * @param comp  Comparator utilizado para a busca
+     * @return lista (possivelmente vazia) com os elementos encontrados
+     */
+    public List<T> pesquisarTodos(T value, Comparator<T> comp) {
+        return BuscaParalela.pesquisarTodos(root, value, comp, comparator);
+    }
+
+    /**
+     * Remove um valor da árvore.
+     *
+     * @param value valor a ser removido
+     * @return o valor removido ou null se não existir
+     */
+    public T remover(T value) {
+        if (metricas != null) {
+            long comparacoes = contador.comparacoes();
+            long inicio = System.nanoTime();
+            T removido = retirar(value);
+            metricas.registrar(MetricasArvore.REMOVER, contador.comparacoes() - comparacoes, System.nanoTime() - inicio);
+            return removido;
+        }
+        return retirar(value);
+    }
+
+    private T retirar(T value) {
+        NodeTree<T>[] path = reservarCaminho();
+        int depth = 0;
+        NodeTree<T> node = root;
+
+        // busca o nó guardando o caminho até ele
+        while (node != null) {
+            int comp = comparator.compare(value, node.getValue());
+            if (comp == 0) break;
+            path[depth++] = node;
+            node = comp < 0 ? node.getChildLeft() : node.getChildRight();
+        }
+        if (node == null) {
+            limparCaminho(path, depth);
+            return null;
+        }
+
+        T removed = node.getValue();
+        NodeTree<T> parent = depth > 0 ? path[depth - 1] : null;
+
+        if (node.getChildLeft() != null && node.getChildRight() != null) {
+            // caso 3: dois filhos (substitui pelo sucessor (menor da subárvore direita))
+            path[depth++] = node;
+            NodeTree<T> succ = node.getChildRight();
+            while (succ.getChildLeft() != null) {
+                path[depth++] = succ;
+                succ = succ.getChildLeft();
+            }
+            node.setValue(succ.getValue()); // copia valor do sucessor
+            // o sucessor não tem filho à esquerda: é substituído pelo seu filho direito
+            substituirFilho(path[depth - 1], succ, succ.getChildRight());
+            noRetirado(succ, path[depth - 1], succ.getChildRight());
+            liberarNo(succ);
+        } else {
+            // casos 1 e 2: no máximo um filho, que ocupa o lugar do nó removido
+            NodeTree<T> child = node.getChildLeft() != null ? node.getChildLeft() : node.getChildRight();
+            if (parent == null) {
+                root = child;
+            } else {
+                substituirFilho(parent, node, child);
+            }
+            noRetirado(node, parent, child);
+            liberarNo(node);
+        }
+
+        subirAjustando(path, depth);
+        return removed;
+    }
+
+    /**
+     * Percorre o caminho guardado de baixo para cima, reajustando cada nó e
+     * religando ao pai a raiz (possivelmente nova) de cada subárvore.
+     *
+     * @param path  nós da raiz até o ponto alterado
+     * @param depth quantidade de nós válidos em path
+     */
+    private void subirAjustando(NodeTree<T>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            NodeTree<T> old = path[i];
+            NodeTree<T> adjusted = reajustar(old);
+            if (adjusted != old) {
+                if (i == 0) {
+                    root = adjusted;
+                } else {
+                    substituirFilho(path[i - 1], old, adjusted);
+                }
+            }
+            path[i] = null; // não retém referências entre operações
+        }
+    }
+
+    /**
+     * Ponto de extensão chamado para cada nó do caminho, de baixo para cima, após
+     * uma inserção ou remoção. Na BST simples apenas atualiza a altura e o tamanho do nó;
+     * subclasses balanceadas sobrescrevem para aplicar rotações.
+     *
+     * @param node nó cujos filhos podem ter mudado
+     * @return a raiz da subárvore após o ajuste
+     */
+    protected NodeTree<T> reajustar(NodeTree<T> node) {
+        atualizarNo(node);
+        return node;
+    }
+
+    /**
+     * Ponto de extensão chamado por remover logo depois que um nó sai fisicamente
+     * da árvore (o próprio nó removido ou, se ele tinha dois filhos, o sucessor cujo
+     * valor foi copiado para ele), antes da subida que chama reajustar. Não faz nada
+     * na BST simples.
+     *
+     * @param node   nó retirado da árvore
+     * @param parent antigo pai do nó (null se ele era a raiz)
+     * @param child  filho que ocupou o lugar do nó (pode ser nulo)
+     */
+    protected void noRetirado(NodeTree<T> node, NodeTree<T> parent, NodeTree<T> child) {
+    }
+
+    /**
+     * Troca o filho 'old' de 'parent' por 'child'.
+     */
+    private void substituirFilho(NodeTree<T> parent, NodeTree<T> old, NodeTree<T> child) {
+        if (parent.getChildLeft() == old) {
+            parent.setChildLeft(child);
+        } else {
+            parent.setChildRight(child);
+        }
+    }
+
+    /**
+     * Garante que o vetor de caminho comporte a altura atual da árvore (mais um
+     * nível para a inserção) e o retorna.
+     *
+     * @return vetor com capacidade suficiente para qualquer caminho da raiz a uma folha
+     */
+    @SuppressWarnings("unchecked")
+    private NodeTree<T>[] reservarCaminho() {
+        int needed = alturaNo(root) + 2;
+        if (caminho == null || caminho.length < needed) {
+            caminho = (NodeTree<T>[]) new NodeTree<?>[Math.max(needed, caminho == null ? 16 : caminho.length * 2)];
+        }
+        return caminho;
+    }
+
+    /**
+     * Cria uma pilha para um caminhamento somente de leitura. Cada chamada tem a sua
+     * (o vetor de caminho é só dos métodos que alteram a árvore), então leituras
+     * simultâneas da mesma árvore não interferem umas nas outras.
+     *
+     * @return vetor com capacidade para qualquer caminho da raiz a uma folha
+     */
+    @SuppressWarnings("unchecked")
+    private NodeTree<T>[] novaPilha() {
+        return (NodeTree<T>[]) new NodeTree<?>[alturaNo(root) + 2];
+    }
+
+    /**
+     * Limpa as posições usadas do vetor de caminho para não reter referências.
+     */
+    private void limparCaminho(NodeTree<T>[] path, int depth) {
+        for (int i = 0; i < depth; i++) {
+            path[i] = null;
+        }
+    }
+
+    /**
+     * Encontra o nó de menor valor em uma subárvore.
+     *
+     * @param node nó inicial da subárvore
+     * @return o nó com o menor valor
+     */
+    protected NodeTree<T> findMin(NodeTree<T> node) {
+        NodeTree<T> current = node;
+        while (current.getChildLeft() != null) {
+            current = current.getChildLeft();
+        }
+        return current;
+    }
+
+    //-----------------------------------------------------------------
+    // Estatísticas de Ordem (usam o tamanho das subárvores)
+    //-----------------------------------------------------------------
+
+    /**
+     * Retorna o k-ésimo menor elemento da árvore (k começa em 0) em O(altura).
+     *
+     * @param k posição do elemento na ordem do comparator
+     * @return o elemento na posição k
+     * @throws IndexOutOfBoundsException se k estiver fora de [0, quantidadeNos())
+     */
+    public T select(int k) {
+        if (k < 0 || k >= tamanhoNo(root)) {
+            throw new IndexOutOfBoundsException("Posição fora da árvore: " + k);
+        }
+        NodeTree<T> node = root;
+        while (true) {
+            int leftSize = tamanhoNo(node.getChildLeft());
+            if (k < leftSize) {
+                node = node.getChildLeft();
+            } else if (k == leftSize) {
+                return node.getValue();
+            } else {
+                k -= leftSize + 1;
+                node = node.getChildRight();
+            }
+        }
+    }
+
+    /**
+     * Retorna a posição de um valor na ordem da árvore, ou seja, a quantidade de
+     * elementos estritamente menores que ele (o valor não precisa estar na árvore).
+     *
+     * @param value valor consultado
+     * @return quantidade de elementos menores que value
+     */
+    public int rank(T value) {
+        return contarMenores(value, false);
+    }
+
+    /**
+     * Conta os elementos no intervalo fechado [lo, hi] em O(altura).
+     *
+     * @param lo limite inferior (inclusivo)
+     * @param hi limite superior (inclusivo)
+     * @return quantidade de elementos entre lo e hi, ou 0 se lo for maior que hi
+     */
+    public int countInRange(T lo, T hi) {
+        if (comparator.compare(lo, hi) > 0) return 0;
+        return contarMenores(hi, true) - contarMenores(lo, false);
+    }
+
+    /**
+     * Retorna até 'quantidade' elementos em ordem a partir da posição 'inicio'.
+     * Desce uma única vez até a posição inicial e continua o caminhamento em ordem
+     * a partir dela, custando O(altura + quantidade).
+     *
+     * @param inicio     posição (começando em 0) do primeiro elemento da página
+     * @param quantidade quantidade máxima de elementos retornados
+     * @return lista com os elementos da página (vazia se inicio estiver além do fim)
+     */
+    public List<T> pagina(int inicio, int quantidade) {
+        int total = tamanhoNo(root);
+        if (inicio < 0) {
+            throw new IndexOutOfBoundsException("Posição fora da árvore: " + inicio);
+        }
+        if (inicio >= total || quantidade <= 0) {
+            return new ArrayList<>();
+        }
+        List<T> result = new ArrayList<>(Math.min(quantidade, total - inicio));
+
+        // desce até o elemento 'inicio' empilhando os nós em que seguimos à esquerda
+        NodeTree<T>[] stack = novaPilha();
+        int top = 0;
+        NodeTree<T> node = root;
+        int k = inicio;
+        while (true) {
+            int leftSize = tamanhoNo(node.getChildLeft());
+            if (k < leftSize) {
+                stack[top++] = node;
+                node = node.getChildLeft();
+            } else if (k == leftSize) {
+                stack[top++] = node;
+                break;
+            } else {
+                k -= leftSize + 1;
+                node = node.getChildRight();
+            }
+        }
+
+        // continua o caminhamento em ordem a partir do topo da pilha
+        while (top > 0 && result.size() < quantidade) {
+            node = stack[--top];
+            result.add(node.getValue());
+            node = node.getChildRight();
+            while (node != null) {
+                stack[top++] = node;
+                node = node.getChildLeft();
+            }
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------
+    // Operações de Navegação e Intervalo
+    //-----------------------------------------------------------------
+
+    /**
+     * @return o menor elemento da árvore, ou null se ela estiver vazia
+     */
+    public T first() {
+        return root == null ? null : findMin(root).getValue();
+    }
+
+    /**
+     * @return o maior elemento da árvore, ou null se ela estiver vazia
+     */
+    public T last() {
+        if (root == null) return null;
+        NodeTree<T> current = root;
+        while (current.getChildRight() != null) {
+            current = current.getChildRight();
+        }
+        return current.getValue();
+    }
+
+    /**
+     * @param value valor de referência
+     * @return o maior elemento menor ou igual a value, ou null se não existir
+     */
+    public T floor(T value) {
+        return buscarVizinho(value, true, true);
+    }
+
+    /**
+     * @param value valor de referência
+     * @return o menor elemento maior ou igual a value, ou null se não existir
+     */
+    public T ceiling(T value) {
+        return buscarVizinho(value, false, true);
+    }
+
+    /**
+     * @param value valor de referência
+     * @return o menor elemento estritamente maior que value, ou null se não existir
+     */
+    public T higher(T value) {
+        return buscarVizinho(value, false, false);
+    }
+
+    /**
+     * @param value valor de referência
+     * @return o maior elemento estritamente menor que value, ou null se não existir
+     */
+    public T lower(T value) {
+        return buscarVizinho(value, true, false);
+    }
+
+    /**
+     * Desce uma única vez da raiz guardando o melhor candidato encontrado.
+     *
+     * @param value     valor de referência
+     * @param menor     true para buscar abaixo de value (floor/lower), false para acima (ceiling/higher)
+     * @param inclusive true se um elemento igual a value é aceito
+     * @return o elemento vizinho ou null
+     */
+    private T buscarVizinho(T value, boolean menor, boolean inclusive) {
+        T candidate = null;
+        NodeTree<T> node = root;
+        while (node != null) {
+            int comp = comparator.compare(value, node.getValue());
+            if (comp == 0 && inclusive) {
+                return node.getValue();
+            }
+            if (menor) {
+                // o nó é candidato se for menor que value; então procuramos um maior à direita
+                if (comp > 0) {
+                    candidate = node.getValue();
+                    node = node.getChildRight();
+                } else {
+                    node = node.getChildLeft();
+                }
+            } else {
+                // o nó é candidato se for maior que value; então procuramos um menor à esquerda
+                if (comp < 0) {
+                    candidate = node.getValue();
+                    node = node.getChildLeft();
+                } else {
+                    node = node.getChildRight();
+                }
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Retorna um iterador preguiçoso, em ordem, sobre os elementos do intervalo
+     * fechado [lo, hi]. Subárvores fora do intervalo não são visitadas, então
+     * percorrer k elementos custa O(altura + k) e a única alocação é o próprio
+     * iterador. A árvore não deve ser alterada enquanto o iterador estiver em uso.
+     *
+     * @param lo limite inferior (inclusivo), ou null para começar no menor elemento
+     * @param hi limite superior (inclusivo), ou null para ir até o maior elemento
+     * @return iterador sobre os elementos entre lo e hi
+     */
+    public Iterator<T> range(T lo, T hi) {
+        return new IteradorIntervalo(lo, hi);
+    }
+
+    /**
+     * Retorna um iterador preguiçoso que percorre todos os elementos em ordem.
+     * Ao contrário de caminharEmOrdem(), nenhuma String é montada: cada passo apenas
+     * desempilha/empilha nós em uma pilha explícita, sem alocações.
+     *
+     * @return iterador em ordem sobre a árvore
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new IteradorIntervalo(null, null);
+    }
+
+    /**
+     * Retorna um Spliterator em ordem que se divide nas fronteiras das subárvores.
+     * Como cada nó guarda o tamanho da sua subárvore, os tamanhos das partes são
+     * exatos (SIZED/SUBSIZED), o que permite a um parallelStream() dividir o trabalho
+     * por igual em árvores balanceadas como a BinTreeAVL.
+     *
+     * @return Spliterator ORDERED, SORTED (pelo comparator da árvore), SIZED e SUBSIZED
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new DivisorSubarvores();
+    }
+
+    /**
+     * Retorna um Stream sequencial com os elementos em ordem. Operações de curto
+     * circuito (findFirst, limit, anyMatch...) param o caminhamento assim que possível.
+     *
+     * @return Stream dos elementos da árvore
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Retorna um Stream paralelo com os elementos da árvore. A árvore não deve ser
+     * alterada enquanto o Stream estiver sendo consumido.
+     *
+     * @return Stream paralelo dos elementos da árvore
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Spliterator baseado em uma pilha de pendências. Cada posição da pilha guarda um
+     * nó ainda não visitado e a subárvore que vem logo depois dele na ordem (em geral
+     * o filho direito do nó). O topo da pilha contém os menores elementos restantes.
+     *
+     * A divisão entrega ao novo Spliterator o prefixo (as pendências mais próximas do
+     * topo) e mantém a pendência da base; quando só resta uma pendência, a subárvore
+     * seguinte é repartida pela sua raiz. Assim cada divisão corta a árvore em uma
+     * fronteira de subárvore e, numa árvore balanceada, em partes de tamanho parecido.
+     */
+    private class DivisorSubarvores implements Spliterator<T> {
+        private final NodeTree<T>[] nodes;      // nós pendentes
+        private final NodeTree<T>[] following;  // subárvore que segue cada nó pendente
+        private int top;
+        private long remaining;                 // quantidade exata de elementos restantes
+
+        DivisorSubarvores() {
+            this(alturaNo(root) + 2);
+            empilharEsquerda(root);
+            this.remaining = tamanhoNo(root);
+        }
+
+        @SuppressWarnings("unchecked")
+        private DivisorSubarvores(int capacity) {
+            this.nodes = (NodeTree<T>[]) new NodeTree<?>[capacity];
+            this.following = (NodeTree<T>[]) new NodeTree<?>[capacity];
+        }
+
+        /**
+         * Empilha o nó e todos os seus descendentes à esquerda.
+         */
+        private void empilharEsquerda(NodeTree<T> node) {
+            while (node != null) {
+                nodes[top] = node;
+                following[top++] = node.getChildRight();
+                node = node.getChildLeft();
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (top == 0) return false;
+            NodeTree<T> node = nodes[--top];
+            NodeTree<T> next = following[top];
+            nodes[top] = null;
+            following[top] = null;
+            remaining--;
+            empilharEsquerda(next);
+            action.accept(node.getValue());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (top > 0) {
+                NodeTree<T> node = nodes[--top];
+                NodeTree<T> next = following[top];
+                nodes[top] = null;
+                following[top] = null;
+                empilharEsquerda(next);
+                action.accept(node.getValue());
+            }
+            remaining = 0;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            DivisorSubarvores prefix = new DivisorSubarvores(nodes.length);
+            if (top >= 2) {
+                // o prefixo fica com as pendências 1..top-1; este mantém só a da base
+                long prefixSize = 0;
+                for (int i = 1; i < top; i++) {
+                    prefix.nodes[i - 1] = nodes[i];
+                    prefix.following[i - 1] = following[i];
+                    prefixSize += 1 + tamanhoNo(following[i]);
+                    nodes[i] = null;
+                    following[i] = null;
+                }
+                prefix.top = top - 1;
+                prefix.remaining = prefixSize;
+                top = 1;
+                remaining -= prefixSize;
+                return prefix;
+            }
+            if (top == 1 && following[0] != null) {
+                // uma só pendência (n, S): o prefixo fica com n e a subárvore esquerda
+                // de S; este fica com a raiz de S e a sua subárvore direita
+                NodeTree<T> sub = following[0];
+                prefix.nodes[0] = nodes[0];
+                prefix.following[0] = sub.getChildLeft();
+                prefix.top = 1;
+                prefix.remaining = 1 + tamanhoNo(sub.getChildLeft());
+                nodes[0] = sub;
+                following[0] = sub.getChildRight();
+                remaining -= prefix.remaining;
+                return prefix;
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                    | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparadorOriginal();
+        }
+    }
+
+    /**
+     * Iterador em ordem limitado a um intervalo. Usa uma pilha explícita com os
+     * nós cujo valor ainda não foi retornado (no máximo altura + 1 nós).
+     */
+    private class IteradorIntervalo implements Iterator<T> {
+        private final NodeTree<T>[] stack;
+        private final T hi;
+        private int top;
+
+        IteradorIntervalo(T lo, T hi) {
+            @SuppressWarnings("unchecked")
+            NodeTree<T>[] pilha = (NodeTree<T>[]) new NodeTree<?>[alturaNo(root) + 1];
+            this.stack = pilha;
+            this.hi = hi;
+            // desce até lo empilhando apenas os nós maiores ou iguais a lo
+            NodeTree<T> node = root;
+            while (node != null) {
+                if (lo != null && comparator.compare(node.getValue(), lo) < 0) {
+                    node = node.getChildRight();
+                } else {
+                    stack[top++] = node;
+                    node = node.getChildLeft();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (top == 0) return false;
+            if (hi != null && comparator.compare(stack[top - 1].getValue(), hi) > 0) {
+                top = 0; // passou do limite superior: encerra o caminhamento
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            NodeTree<T> node = stack[--top];
+            stack[top] = null;
+            T value = node.getValue();
+            // a subárvore direita é toda maior que o nó (e portanto maior que lo)
+            node = node.getChildRight();
+            while (node != null) {
+                stack[top++] = node;
+                node = node.getChildLeft();
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Conta os elementos menores que value (ou menores ou iguais, se inclusive).
+     */
+    private int contarMenores(T value, boolean inclusive) {
+        int count = 0;
+        NodeTree<T> node = root;
+        while (node != null) {
+            int comp = comparator.compare(value, node.getValue());
+            if (comp < 0) {
+                node = node.getChildLeft();
+            } else if (comp == 0) {
+                return count + tamanhoNo(node.getChildLeft()) + (inclusive ? 1 : 0);
+            } else {
+                count += tamanhoNo(node.getChildLeft()) + 1;
+                node = node.getChildRight();
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Retorna a travessia in-order como uma string (útil para testes ou exibição).
+     * @return String com os elementos em ordem
+     */
+    public String caminharEmOrdem() {
+        StringBuilder sb = new StringBuilder();
+        if (root != null) {
+            NodeTree<T>[] stack = novaPilha();
+            int top = 0;
+            NodeTree<T> node = root;
+            while (node != null || top > 0) {
+                // desce pela esquerda empilhando os nós
+                while (node != null) {
+                    stack[top++] = node;
+                    node = node.getChildLeft();
+                }
+                node = stack[--top];
+
+                // Adiciona o valor do nó atual
+                sb.append(node.getValue()).append(" ");
+
+                // Visita a subárvore direita
+                node = node.getChildRight();
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Percorre a árvore em nível (Breadth-First pesquisar) e retorna uma string
+     * com os valores de cada nó separados por " \n ", iniciando com "[" e terminando com "]".
+     *
+     * @return string formatada com os valores da árvore em ordem de nível
+     */
+    public String caminharEmNivel() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+
+        if (root != null) {
+            Queue<NodeTree<T>> queue = new ArrayDeque<>(); // Fila para BFS
+            queue.add(root);
+
+            while (!queue.isEmpty()) {
+                // Remove o próximo nó da fila
+                NodeTree<T> current = queue.poll();
+
+                // Adiciona seu valor à string com separador " \n "
+                sb.append(current.getValue().toString()).append(" \n ");
+
+                // Adiciona os filhos à fila (esquerdo depois direito)
+                if (current.getChildLeft() != null) {
+                    queue.add(current.getChildLeft());
+                }
+                if (current.getChildRight() != null) {
+                    queue.add(current.getChildRight());
+                }
+            }
+
+            // Remove o último " \n " extra
+            if (sb.length() >= 3) {
+                sb.setLength(sb.length() - 3);
+            }
+        }
+
+        sb.append("]");
+        return sb.toString();
+    }
+
+
+
+    /**
+     * Retorna o número total de nós na árvore. Cada nó guarda o tamanho da sua
+     * subárvore, mantido durante as inserções e remoções (valores duplicados não
+     * alteram nada), então a consulta é O(1).
+     * @return número total de nós
+     */
+    public int quantidadeNos() {
+        return tamanhoNo(root);
+    }
+
+    /**
+     * Retorna a altura da árvore. A altura de cada nó é mantida em NodeTree
+     * durante as inserções e remoções, então a consulta é O(1).
+     * @return altura (nível mais profundo da árvore)
+     */
+    public int altura() {
+        if (root == null) {
+            throw new IllegalStateException("Árvore vazia: não é possível calcular a altura.");
+        }
+        return root.getHeight();
+    }
+
+    /**
+     * Retorna a altura armazenada em um nó.
+     *
+     * @param node nó consultado
+     * @return a altura do nó (-1 se o nó for nulo)
+     */
+    protected int alturaNo(NodeTree<T> node) {
+        if (node == null){
+            return -1;
+        }// Altura de árvore vazia é -1
+        return node.getHeight();
+    }
+
+    /**
+     * Retorna a quantidade de nós armazenada em um nó.
+     *
+     * @param node nó consultado
+     * @return o tamanho da subárvore (0 se o nó for nulo)
+     */
+    protected int tamanhoNo(NodeTree<T> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    /**
+     * Recalcula a altura e o tamanho de um nó a partir dos valores já armazenados
+     * nos filhos. Deve ser chamado sempre que os filhos do nó forem alterados.
+     *
+     * @param node nó a ser atualizado
+     */
+    protected void atualizarNo(NodeTree<T> node) {
+        NodeTree<T> left = node.getChildLeft();
+        NodeTree<T> right = node.getChildRight();
+        node.setHeight(1 + Math.max(alturaNo(left), alturaNo(right)));
+        node.setSize(1 + tamanhoNo(left) + tamanhoNo(right));
+    }
+}
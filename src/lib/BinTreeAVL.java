@@ -1,179 +1,190 @@
-package lib;
-
-import java.util.Comparator;
-
-/**
- * Implementação de uma Árvore Binária de Busca AVL (Auto-Balanceada).
- * Esta classe herda de BinTree e sobrescreve o método de adição
- * para garantir que a árvore permaneça balanceada após cada inserção.
- *
- * @param <T> tipo dos elementos armazenados na árvore
- */
-public class BinTreeAVL<T> extends BinTree<T> {
-
-    /**
-     * Construtor da árvore AVL.
-     *
-     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
-     */
-    public BinTreeAVL(Comparator<T> comparator) {
-        super(comparator);
-    }
-
-    //-----------------------------------------------------------------
-    // Métodos Auxiliares de Balanceamento
-    //-----------------------------------------------------------------
-
-    /**
-     * Calcula a altura de um nó específico.
-     * Este método é necessário pois o 'altura(NodeTree<T> node)' da classe pai é privado.
-     *
-     * @param node O nó cuja altura será calculada.
-     * @return A altura do nó (-1 se o nó for nulo).
-     */
-    private int alturaNode(NodeTree<T> node) {
-        if (node == null) {
-            return -1; // Altura de uma árvore/nó nulo é -1
-        }
-        
-        // Recalcula a altura de forma recursiva (ineficiente, mas funcional sem
-        // um campo 'altura' no NodeTree)
-        int left = alturaNode(node.getChildLeft());
-        int right = alturaNode(node.getChildRight());
-        
-        return 1 + Math.max(left, right);
-    }
-
-    /**
-     * Calcula o fator de balanceamento de um nó.
-     * O fator é (altura da subárvore esquerda) - (altura da subárvore direita).
-     *
-     * @param node O nó para verificar o balanceamento.
-     * @return O fator de balanceamento (0 se o nó for nulo).
-     */
-    private int getFatorBalanceamento(NodeTree<T> node) {
-        if (node == null) {
-            return 0;
-        }
-        // Usa nosso método 'alturaNode' reimplementado
-        return alturaNode(node.getChildLeft()) - alturaNode(node.getChildRight());
-    }
-
-    //-----------------------------------------------------------------
-    // Métodos de Rotação
-    //-----------------------------------------------------------------
-
-    /**
-     * Executa uma rotação simples à direita (Caso Esquerda-Esquerda).
-     *
-     * @param y Nó desbalanceado (raiz da subárvore a ser rotacionada).
-     * @return A nova raiz da subárvore após a rotação.
-     */
-    private NodeTree<T> rotacaoDireita(NodeTree<T> y) {
-        
-        NodeTree<T> x = y.getChildLeft();
-        NodeTree<T> T2 = x.getChildRight();
-
-        // Realiza a rotação
-        x.setChildRight(y);
-        y.setChildLeft(T2);
-
-        // Retorna a nova raiz
-        return x;
-    }
-
-    /**
-     * Executa uma rotação simples à esquerda (Caso Direita-Direita).
-     *
-     * @param x Nó desbalanceado (raiz da subárvore a ser rotacionada).
-     * @return A nova raiz da subárvore após a rotação.
-     */
-    private NodeTree<T> rotacaoEsquerda(NodeTree<T> x) {
-        
-        NodeTree<T> y = x.getChildRight();
-        NodeTree<T> T2 = y.getChildLeft();
-
-        // Realiza a rotação
-        y.setChildLeft(x);
-        x.setChildRight(T2);
-
-        // Retorna a nova raiz
-        return y;
-    }
-
-    //-----------------------------------------------------------------
-    // Sobrescrita do Método Adicionar
-    //-----------------------------------------------------------------
-
-    /**
-     * Insere um novo valor na árvore e, em seguida, executa o
-     * balanceamento AVL. (Sobrescreve o método da classe BinTree).
-     *
-     * @param newValue valor a ser adicionado
-     */
-    @Override
-    public void adicionar(T newValue) {
-        // Acessamos 'root' e 'comparator' da classe pai (que devem ser 'protected')
-        this.root = adicionarEBalancear(this.root, newValue);
-    }
-
-    /**
-     * Método recursivo auxiliar para inserir E balancear a árvore.
-     * Este método substitui o 'adicionarRecursivo' da classe pai.
-     *
-     * @param node  Nó atual da recursão.
-     * @param value Valor a ser inserido.
-     * @return O nó raiz da subárvore (potencialmente) modificada e balanceada.
-     */
-    private NodeTree<T> adicionarEBalancear(NodeTree<T> node, T value) {
-        
-        // --- 1. Inserção Padrão de BST ---
-        if (node == null) {
-            return new NodeTree<>(value);
-        }
-
-        // Usamos o 'comparator' (que deve ser 'protected') da classe pai
-        int comp = comparator.compare(value, node.getValue());
-
-        if (comp < 0) {
-            node.setChildLeft(adicionarEBalancear(node.getChildLeft(), value));
-        } else if (comp > 0) {
-            node.setChildRight(adicionarEBalancear(node.getChildRight(), value));
-        } else {
-            // Valores duplicados não são inseridos
-            return node;
-        }
-
-        // --- 2. Obter Fator de Balanceamento ---
-        int balance = getFatorBalanceamento(node);
-
-        // --- 3. Casos de Rotação ---
-
-        // Caso 1: Esquerda-Esquerda (LL)
-        if (balance > 1 && comparator.compare(value, node.getChildLeft().getValue()) < 0) {
-            return rotacaoDireita(node);
-        }
-
-        // Caso 2: Direita-Direita (RR)
-        if (balance < -1 && comparator.compare(value, node.getChildRight().getValue()) > 0) {
-            return rotacaoEsquerda(node);
-        }
-
-        // Caso 3: Esquerda-Direita (LR)
-        
-        if (balance > 1 && comparator.compare(value, node.getChildLeft().getValue()) > 0) {
-            node.setChildLeft(rotacaoEsquerda(node.getChildLeft()));
-            return rotacaoDireita(node);
-        }
-
-        // Caso 4: Direita-Esquerda (RL)
-        
-        if (balance < -1 && comparator.compare(value, node.getChildRight().getValue()) < 0) {
-            node.setChildRight(rotacaoDireita(node.getChildRight()));
-            return rotacaoEsquerda(node);
-        }
-
-        // --- 4. Retornar o nó (sem mudanças de balanceamento) ---
-        return node;
-    }
-}
\ No newline at end of file
+package lib;
+
+import java.util.Comparator;
+
+/**
+ * Implementação de uma Árvore Binária de Busca AVL (Auto-Balanceada).
+ * Esta classe herda de BinTree, que faz a inserção e a remoção de forma iterativa,
+ * e sobrescreve o ajuste feito em cada nó do caminho de volta à raiz para garantir
+ * que a árvore permaneça balanceada após cada inserção ou remoção.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeAVL<T> extends BinTree<T> {
+
+    /**
+     * Construtor da árvore AVL.
+     *
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreeAVL(Comparator<T> comparator) {
+        super(comparator);
+    }
+
+    /**
+     * @return nova BinTreeAVL vazia com o mesmo comparator (usada por split)
+     */
+    @Override
+    protected BinTree<T> novaArvore() {
+        return new BinTreeAVL<>(comparadorOriginal());
+    }
+
+    //-----------------------------------------------------------------
+    // Métodos Auxiliares de Balanceamento
+    //-----------------------------------------------------------------
+
+    /**
+     * Calcula o fator de balanceamento de um nó.
+     * O fator é (altura da subárvore esquerda) - (altura da subárvore direita).
+     *
+     * @param node O nó para verificar o balanceamento.
+     * @return O fator de balanceamento (0 se o nó for nulo).
+     */
+    private int getFatorBalanceamento(NodeTree<T> node) {
+        if (node == null) {
+            return 0;
+        }
+        // Usa as alturas mantidas em cada nó (O(1), sem recursão)
+        return alturaNo(node.getChildLeft()) - alturaNo(node.getChildRight());
+    }
+
+    //-----------------------------------------------------------------
+    // Métodos de Rotação
+    //-----------------------------------------------------------------
+
+    /**
+     * Executa uma rotação simples à direita (Caso Esquerda-Esquerda).
+     *
+     * @param y Nó desbalanceado (raiz da subárvore a ser rotacionada).
+     * @return A nova raiz da subárvore após a rotação.
+     */
+    private NodeTree<T> rotacaoDireita(NodeTree<T> y) {
+        
+        NodeTree<T> x = y.getChildLeft();
+        NodeTree<T> T2 = x.getChildRight();
+
+        // Realiza a rotação
+        x.setChildRight(y);
+        y.setChildLeft(T2);
+
+        // Atualiza alturas e tamanhos (primeiro y, que agora é filho de x)
+        atualizarNo(y);
+        atualizarNo(x);
+
+        // Retorna a nova raiz
+        return x;
+    }
+
+    /**
+     * Executa uma rotação simples à esquerda (Caso Direita-Direita).
+     *
+     * @param x Nó desbalanceado (raiz da subárvore a ser rotacionada).
+     * @return A nova raiz da subárvore após a rotação.
+     */
+    private NodeTree<T> rotacaoEsquerda(NodeTree<T> x) {
+        
+        NodeTree<T> y = x.getChildRight();
+        NodeTree<T> T2 = y.getChildLeft();
+
+        // Realiza a rotação
+        y.setChildLeft(x);
+        x.setChildRight(T2);
+
+        // Atualiza alturas e tamanhos (primeiro x, que agora é filho de y)
+        atualizarNo(x);
+        atualizarNo(y);
+
+        // Retorna a nova raiz
+        return y;
+    }
+
+    //-----------------------------------------------------------------
+    // Balanceamento após Inserção e Remoção
+    //-----------------------------------------------------------------
+
+    /**
+     * Chamado pela BinTree para cada nó do caminho, de baixo para cima, após uma
+     * inserção ou remoção. Atualiza altura e tamanho do nó e aplica a rotação necessária.
+     * (Sobrescreve o ponto de extensão da classe BinTree, que só atualiza o nó.)
+     *
+     * @param node Nó cujos filhos podem ter mudado.
+     * @return A raiz da subárvore após o balanceamento.
+     */
+    @Override
+    protected NodeTree<T> reajustar(NodeTree<T> node) {
+        atualizarNo(node);
+        return balancear(node);
+    }
+
+    /**
+     * Junta duas subárvores AVL com um nó do meio, mesmo que as alturas sejam muito
+     * diferentes: desce pela borda da subárvore mais alta até encontrar uma subárvore
+     * de altura próxima à da mais baixa, pendura ali o nó do meio e rebalanceia na
+     * volta. Custa O(|altura(left) - altura(right)| + 1).
+     * (Sobrescreve a junção simples da classe BinTree.)
+     *
+     * @param left   subárvore com os elementos menores
+     * @param middle nó do meio
+     * @param right  subárvore com os elementos maiores
+     * @return a raiz da subárvore AVL resultante
+     */
+    @Override
+    protected NodeTree<T> juntar(NodeTree<T> left, NodeTree<T> middle, NodeTree<T> right) {
+        int hl = alturaNo(left);
+        int hr = alturaNo(right);
+        if (hl > hr + 1) {
+            // desce pela borda direita de 'left'
+            left.setChildRight(juntar(left.getChildRight(), middle, right));
+            return reajustar(left);
+        }
+        if (hr > hl + 1) {
+            // desce pela borda esquerda de 'right'
+            right.setChildLeft(juntar(left, middle, right.getChildLeft()));
+            return reajustar(right);
+        }
+        middle.setChildLeft(left);
+        middle.setChildRight(right);
+        atualizarNo(middle);
+        return middle;
+    }
+
+    /**
+     * Verifica o fator de balanceamento de um nó (com a altura já atualizada) e
+     * aplica a rotação adequada caso ele esteja desbalanceado. O caso é escolhido
+     * pelo fator de balanceamento do filho, o que vale tanto para inserção quanto
+     * para remoção.
+     *
+     * @param node Nó a ser verificado.
+     * @return A raiz da subárvore após o balanceamento.
+     */
+    private NodeTree<T> balancear(NodeTree<T> node) {
+        int balance = getFatorBalanceamento(node);
+
+        if (balance > 1) {
+            // Caso 3: Esquerda-Direita (LR)
+            if (getFatorBalanceamento(node.getChildLeft()) < 0) {
+                node.setChildLeft(rotacaoEsquerda(node.getChildLeft()));
+                contarRotacao(MetricasArvore.LR);
+            } else {
+                // Caso 1: Esquerda-Esquerda (LL)
+                contarRotacao(MetricasArvore.LL);
+            }
+            return rotacaoDireita(node);
+        }
+
+        if (balance < -1) {
+            // Caso 4: Direita-Esquerda (RL)
+            if (getFatorBalanceamento(node.getChildRight()) > 0) {
+                node.setChildRight(rotacaoDireita(node.getChildRight()));
+                contarRotacao(MetricasArvore.RL);
+            } else {
+                // Caso 2: Direita-Direita (RR)
+                contarRotacao(MetricasArvore.RR);
+            }
+            return rotacaoEsquerda(node);
+        }
+
+        // Nó balanceado (sem mudanças)
+        return node;
+    }
+}
@@ -0,0 +1,483 @@
+package lib;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Árvore B+ que implementa BinTreeInterface.
+ *
+ * Em vez de um NodeTree por elemento, cada nó guarda até 'ordem' chaves ordenadas em
+ * um vetor: os nós internos guardam só separadores e referências para os filhos, e
+ * todos os elementos ficam nas folhas, ligadas da menor para a maior. Uma busca desce
+ * poucos níveis (cerca de log_{ordem/2}(n)) fazendo busca binária em vetores
+ * contíguos, e o caminhamento em ordem é uma varredura sequencial das folhas.
+ *
+ * Todos os nós, exceto a raiz, mantêm pelo menos ordem / 2 chaves: a inserção divide
+ * nós cheios e a remoção pega uma chave emprestada de um irmão ou junta dois irmãos.
+ *
+ * Como em uma árvore B+ só as folhas guardam elementos, quantidadeNos() retorna a
+ * quantidade de elementos e altura() a quantidade de níveis abaixo da raiz (0 quando
+ * a raiz é uma folha, -1 para a árvore vazia).
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeBPlus<T> implements BinTreeInterface<T>, Iterable<T> {
+    /** Quantidade máxima de chaves por nó usada pelo construtor padrão. */
+    public static final int ORDEM_PADRAO = 64;
+
+    private final Comparator<T> comparator;
+    private final int ordem;         // máximo de chaves por nó
+    private final int minimo;        // mínimo de chaves por nó (exceto a raiz)
+    private No raiz;
+    private int tamanho;
+    private int altura = -1;
+
+    // resultado da divisão de um filho durante a inserção
+    private No novoIrmao;
+    private Object separador;
+    private boolean inserido;
+
+    /**
+     * Nó da árvore: n chaves em ordem no início do vetor (que tem uma posição extra
+     * para o momento antes da divisão).
+     */
+    private abstract static class No {
+        final Object[] chaves;
+        int n;
+
+        No(int ordem) {
+            chaves = new Object[ordem + 1];
+        }
+    }
+
+    /**
+     * Folha: as chaves são os próprios elementos.
+     */
+    private static final class Folha extends No {
+        Folha proxima;
+
+        Folha(int ordem) {
+            super(ordem);
+        }
+    }
+
+    /**
+     * Nó interno: o filho i guarda as chaves maiores ou iguais a chaves[i - 1] e
+     * menores que chaves[i].
+     */
+    private static final class Interno extends No {
+        final No[] filhos;
+
+        Interno(int ordem) {
+            super(ordem);
+            filhos = new No[ordem + 2];
+        }
+    }
+
+    /**
+     * Cria a árvore com ORDEM_PADRAO chaves por nó.
+     *
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreeBPlus(Comparator<T> comparator) {
+        this(comparator, ORDEM_PADRAO);
+    }
+
+    /**
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     * @param ordem      quantidade máxima de chaves por nó (pelo menos 3)
+     */
+    public BinTreeBPlus(Comparator<T> comparator, int ordem) {
+        if (ordem < 3) {
+            throw new IllegalArgumentException("A ordem da árvore B+ deve ser pelo menos 3: " + ordem);
+        }
+        this.comparator = comparator;
+        this.ordem = ordem;
+        this.minimo = ordem / 2;
+    }
+
+    /**
+     * Insere um novo valor na árvore (duplicatas são ignoradas).
+     *
+     * @param novoValor valor a ser adicionado
+     */
+    @Override
+    public void adicionar(T novoValor) {
+        if (raiz == null) {
+            Folha folha = new Folha(ordem);
+            folha.chaves[0] = novoValor;
+            folha.n = 1;
+            raiz = folha;
+            altura = 0;
+            tamanho = 1;
+            return;
+        }
+        inserido = false;
+        novoIrmao = null;
+        inserir(raiz, novoValor);
+        if (novoIrmao != null) {
+            // a raiz foi dividida: a árvore cresce um nível
+            Interno novaRaiz = new Interno(ordem);
+            novaRaiz.chaves[0] = separador;
+            novaRaiz.filhos[0] = raiz;
+            novaRaiz.filhos[1] = novoIrmao;
+            novaRaiz.n = 1;
+            raiz = novaRaiz;
+            altura++;
+            novoIrmao = null;
+            separador = null;
+        }
+        if (inserido) tamanho++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pesquisar(T valor) {
+        No no = raiz;
+        if (no == null) return null;
+        while (no instanceof Interno) {
+            no = ((Interno) no).filhos[filho(no, valor)];
+        }
+        int pos = buscar(no, valor);
+        return pos >= 0 ? (T) no.chaves[pos] : null;
+    }
+
+    /**
+     * Varre as folhas em ordem (um vetor contíguo por folha) e para no primeiro
+     * elemento encontrado.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pesquisar(T valor, Comparator<T> comparador) {
+        for (Folha folha = primeiraFolha(); folha != null; folha = folha.proxima) {
+            for (int i = 0; i < folha.n; i++) {
+                if (comparador.compare(valor, (T) folha.chaves[i]) == 0) {
+                    return (T) folha.chaves[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remover(T valor) {
+        if (raiz == null) return null;
+        T removido = (T) retirar(raiz, valor);
+        if (removido == null) return null;
+        tamanho--;
+        if (raiz.n == 0) {
+            // raiz interna sem separadores: o único filho vira a raiz
+            raiz = raiz instanceof Interno ? ((Interno) raiz).filhos[0] : null;
+            altura--;
+        }
+        return removido;
+    }
+
+    @Override
+    public int altura() {
+        return altura;
+    }
+
+    @Override
+    public int quantidadeNos() {
+        return tamanho;
+    }
+
+    /**
+     * Percorre os nós em nível: em cada nó interno aparecem os separadores e, no
+     * último nível, os elementos das folhas.
+     */
+    @Override
+    public String caminharEmNivel() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        if (raiz != null) {
+            Queue<No> queue = new ArrayDeque<>();
+            queue.add(raiz);
+            while (!queue.isEmpty()) {
+                No current = queue.poll();
+                for (int i = 0; i < current.n; i++) {
+                    sb.append(current.chaves[i].toString()).append(" \n ");
+                }
+                if (current instanceof Interno) {
+                    Interno interno = (Interno) current;
+                    for (int i = 0; i <= interno.n; i++) {
+                        queue.add(interno.filhos[i]);
+                    }
+                }
+            }
+            // Remove o último " \n " extra
+            if (sb.length() >= 3) {
+                sb.setLength(sb.length() - 3);
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        StringBuilder sb = new StringBuilder();
+        for (Folha folha = primeiraFolha(); folha != null; folha = folha.proxima) {
+            for (int i = 0; i < folha.n; i++) {
+                sb.append(folha.chaves[i]).append(" ");
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Iterador em ordem pelas folhas ligadas. A árvore não deve ser alterada
+     * enquanto o iterador estiver em uso.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Folha folha = primeiraFolha();
+            private int pos;
+
+            @Override
+            public boolean hasNext() {
+                while (folha != null && pos == folha.n) {
+                    folha = folha.proxima;
+                    pos = 0;
+                }
+                return folha != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) folha.chaves[pos++];
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------
+    // Busca nos nós
+    //-----------------------------------------------------------------
+
+    /**
+     * Busca binária de valor nas chaves do nó.
+     *
+     * @return a posição de valor, ou -(ponto de inserção) - 1 se não estiver no nó
+     */
+    @SuppressWarnings("unchecked")
+    private int buscar(No no, T valor) {
+        int lo = 0;
+        int hi = no.n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int comp = comparator.compare((T) no.chaves[mid], valor);
+            if (comp < 0) {
+                lo = mid + 1;
+            } else if (comp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * @return índice do filho de um nó interno onde valor deve estar
+     */
+    private int filho(No no, T valor) {
+        int pos = buscar(no, valor);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    private Folha primeiraFolha() {
+        No no = raiz;
+        if (no == null) return null;
+        while (no instanceof Interno) {
+            no = ((Interno) no).filhos[0];
+        }
+        return (Folha) no;
+    }
+
+    //-----------------------------------------------------------------
+    // Inserção
+    //-----------------------------------------------------------------
+
+    /**
+     * Insere valor na subárvore de no. Se no precisar ser dividido, a metade direita
+     * fica em novoIrmao e a menor chave dela em separador.
+     */
+    private void inserir(No no, T valor) {
+        if (no instanceof Folha) {
+            int pos = buscar(no, valor);
+            if (pos >= 0) return; // duplicata
+            inserirEm(no, -pos - 1, valor);
+            inserido = true;
+            if (no.n > ordem) {
+                dividirFolha((Folha) no);
+            }
+            return;
+        }
+        Interno interno = (Interno) no;
+        int i = filho(no, valor);
+        inserir(interno.filhos[i], valor);
+        if (novoIrmao == null) return;
+
+        // o filho i foi dividido: o separador e o novo irmão entram logo depois dele
+        inserirEm(interno, i, separador);
+        System.arraycopy(interno.filhos, i + 1, interno.filhos, i + 2, interno.n - i - 1);
+        interno.filhos[i + 1] = novoIrmao;
+        novoIrmao = null;
+        separador = null;
+        if (interno.n > ordem) {
+            dividirInterno(interno);
+        }
+    }
+
+    private static void inserirEm(No no, int pos, Object chave) {
+        System.arraycopy(no.chaves, pos, no.chaves, pos + 1, no.n - pos);
+        no.chaves[pos] = chave;
+        no.n++;
+    }
+
+    private void dividirFolha(Folha folha) {
+        Folha direita = new Folha(ordem);
+        int meio = folha.n / 2;
+        direita.n = folha.n - meio;
+        System.arraycopy(folha.chaves, meio, direita.chaves, 0, direita.n);
+        Arrays.fill(folha.chaves, meio, folha.n, null);
+        folha.n = meio;
+        direita.proxima = folha.proxima;
+        folha.proxima = direita;
+        novoIrmao = direita;
+        separador = direita.chaves[0];
+    }
+
+    private void dividirInterno(Interno interno) {
+        Interno direita = new Interno(ordem);
+        int meio = interno.n / 2;
+        separador = interno.chaves[meio]; // sobe para o pai
+        direita.n = interno.n - meio - 1;
+        System.arraycopy(interno.chaves, meio + 1, direita.chaves, 0, direita.n);
+        System.arraycopy(interno.filhos, meio + 1, direita.filhos, 0, direita.n + 1);
+        Arrays.fill(interno.chaves, meio, interno.n, null);
+        Arrays.fill(interno.filhos, meio + 1, interno.n + 1, null);
+        interno.n = meio;
+        novoIrmao = direita;
+    }
+
+    //-----------------------------------------------------------------
+    // Remoção
+    //-----------------------------------------------------------------
+
+    /**
+     * Retira valor da subárvore de no, corrigindo na volta os filhos que ficaram com
+     * menos de 'minimo' chaves.
+     *
+     * @return o elemento removido ou null
+     */
+    private Object retirar(No no, T valor) {
+        if (no instanceof Folha) {
+            int pos = buscar(no, valor);
+            if (pos < 0) return null;
+            Object removido = no.chaves[pos];
+            retirarEm(no, pos);
+            return removido;
+        }
+        Interno interno = (Interno) no;
+        int i = filho(no, valor);
+        Object removido = retirar(interno.filhos[i], valor);
+        if (removido != null && interno.filhos[i].n < minimo) {
+            corrigir(interno, i);
+        }
+        return removido;
+    }
+
+    private static void retirarEm(No no, int pos) {
+        System.arraycopy(no.chaves, pos + 1, no.chaves, pos, no.n - pos - 1);
+        no.chaves[--no.n] = null;
+    }
+
+    /**
+     * O filho i de pai ficou com menos de 'minimo' chaves: pega uma chave emprestada
+     * de um irmão ou junta o filho a um irmão.
+     */
+    private void corrigir(Interno pai, int i) {
+        No atual = pai.filhos[i];
+        No esquerdo = i > 0 ? pai.filhos[i - 1] : null;
+        No direito = i < pai.n ? pai.filhos[i + 1] : null;
+
+        if (esquerdo != null && esquerdo.n > minimo) {
+            emprestarDoEsquerdo(pai, i, esquerdo, atual);
+        } else if (direito != null && direito.n > minimo) {
+            emprestarDoDireito(pai, i, atual, direito);
+        } else if (esquerdo != null) {
+            juntar(pai, i - 1, esquerdo, atual);
+        } else {
+            juntar(pai, i, atual, direito);
+        }
+    }
+
+    private void emprestarDoEsquerdo(Interno pai, int i, No esquerdo, No atual) {
+        if (atual instanceof Folha) {
+            inserirEm(atual, 0, esquerdo.chaves[esquerdo.n - 1]);
+            retirarEm(esquerdo, esquerdo.n - 1);
+            pai.chaves[i - 1] = atual.chaves[0];
+            return;
+        }
+        Interno a = (Interno) atual;
+        Interno e = (Interno) esquerdo;
+        // o separador desce para o filho e a última chave do irmão sobe
+        System.arraycopy(a.filhos, 0, a.filhos, 1, a.n + 1);
+        a.filhos[0] = e.filhos[e.n];
+        e.filhos[e.n] = null;
+        inserirEm(a, 0, pai.chaves[i - 1]);
+        pai.chaves[i - 1] = e.chaves[e.n - 1];
+        retirarEm(e, e.n - 1);
+    }
+
+    private void emprestarDoDireito(Interno pai, int i, No atual, No direito) {
+        if (atual instanceof Folha) {
+            inserirEm(atual, atual.n, direito.chaves[0]);
+            retirarEm(direito, 0);
+            pai.chaves[i] = direito.chaves[0];
+            return;
+        }
+        Interno a = (Interno) atual;
+        Interno d = (Interno) direito;
+        a.filhos[a.n + 1] = d.filhos[0];
+        inserirEm(a, a.n, pai.chaves[i]);
+        pai.chaves[i] = d.chaves[0];
+        System.arraycopy(d.filhos, 1, d.filhos, 0, d.n);
+        d.filhos[d.n] = null;
+        retirarEm(d, 0);
+    }
+
+    /**
+     * Junta o filho i + 1 de pai (direito) ao filho i (esquerdo) e retira do pai o
+     * separador entre eles.
+     */
+    private void juntar(Interno pai, int i, No esquerdo, No direito) {
+        if (esquerdo instanceof Folha) {
+            System.arraycopy(direito.chaves, 0, esquerdo.chaves, esquerdo.n, direito.n);
+            esquerdo.n += direito.n;
+            ((Folha) esquerdo).proxima = ((Folha) direito).proxima;
+        } else {
+            Interno e = (Interno) esquerdo;
+            Interno d = (Interno) direito;
+            e.chaves[e.n] = pai.chaves[i]; // o separador desce
+            System.arraycopy(d.chaves, 0, e.chaves, e.n + 1, d.n);
+            System.arraycopy(d.filhos, 0, e.filhos, e.n + 1, d.n + 1);
+            e.n += d.n + 1;
+        }
+        retirarEm(pai, i);
+        System.arraycopy(pai.filhos, i + 2, pai.filhos, i + 1, pai.n - i);
+        pai.filhos[pai.n + 1] = null;
+    }
+}
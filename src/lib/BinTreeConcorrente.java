@@ -0,0 +1,156 @@
+package lib;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Árvore AVL segura para uso por várias threads, com leituras que nunca bloqueiam.
+ *
+ * Os nós publicados nunca são alterados: cada escrita monta, por cópia de caminho
+ * (CopiaDeCaminho), uma nova versão da árvore que compartilha as subárvores não
+ * tocadas e tenta publicá-la com um compareAndSet na raiz. Se outra escrita publicou
+ * antes, a operação é refeita sobre a versão mais nova. Assim:
+ *
+ *  - pesquisar, altura, quantidadeNos e os caminhamentos leem a raiz uma única vez e
+ *    percorrem uma versão imutável, sem locks e sem esperar por escritores;
+ *  - cada operação é linearizável no instante da leitura (leituras) ou do
+ *    compareAndSet bem-sucedido (escritas);
+ *  - escritores não bloqueiam uns aos outros, mas escritas simultâneas competem pela
+ *    raiz e a perdedora é refeita. Para cargas com muitas escritas veja a divisão
+ *    da árvore em partes independentes.
+ *
+ * O comparator deve poder ser usado por várias threads ao mesmo tempo.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeConcorrente<T> implements BinTreeInterface<T>, Iterable<T> {
+    private final AtomicReference<NodeTree<T>> root = new AtomicReference<>();
+    private final Comparator<T> comparator;
+    private final CopiaDeCaminho<T> copia;
+
+    /**
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreeConcorrente(Comparator<T> comparator) {
+        this.comparator = comparator;
+        this.copia = new CopiaDeCaminho<>(comparator);
+    }
+
+    /**
+     * Insere um valor (duplicatas são ignoradas).
+     *
+     * @param novoValor valor a ser adicionado
+     */
+    @Override
+    public void adicionar(T novoValor) {
+        inserir(novoValor);
+    }
+
+    /**
+     * Insere um valor e informa se ele foi de fato inserido.
+     *
+     * @return true se inserido, false se já existia
+     */
+    private boolean inserir(T novoValor) {
+        while (true) {
+            NodeTree<T> atual = root.get();
+            NodeTree<T> nova = copia.inserir(atual, novoValor);
+            if (nova == atual) return false;
+            if (root.compareAndSet(atual, nova)) return true;
+            Thread.onSpinWait(); // outra escrita venceu: tenta de novo sobre a versão nova
+        }
+    }
+
+    @Override
+    public T pesquisar(T valor) {
+        NodeTree<T> node = root.get();
+        while (node != null) {
+            int comp = comparator.compare(valor, node.getValue());
+            if (comp == 0) {
+                return node.getValue();
+            }
+            node = comp < 0 ? node.getChildLeft() : node.getChildRight();
+        }
+        return null;
+    }
+
+    @Override
+    public T pesquisar(T valor, Comparator<T> comparador) {
+        return visao().pesquisar(valor, comparador);
+    }
+
+    @Override
+    public T remover(T valor) {
+        while (true) {
+            NodeTree<T> atual = root.get();
+            CopiaDeCaminho.Remocao<T> r = copia.remover(atual, valor);
+            if (r.removido == null) return null;
+            if (root.compareAndSet(atual, r.raiz)) return r.removido;
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return altura da versão atual (-1 se a árvore estiver vazia)
+     */
+    @Override
+    public int altura() {
+        NodeTree<T> r = root.get();
+        return r == null ? -1 : r.getHeight();
+    }
+
+    @Override
+    public int quantidadeNos() {
+        NodeTree<T> r = root.get();
+        return r == null ? 0 : r.getSize();
+    }
+
+    @Override
+    public String caminharEmNivel() {
+        return visao().caminharEmNivel();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        return visao().caminharEmOrdem();
+    }
+
+    @Override
+    public int adicionarTodos(Collection<? extends T> valores) {
+        int inseridos = 0;
+        for (T valor : valores) {
+            if (inserir(valor)) inseridos++;
+        }
+        return inseridos;
+    }
+
+    /**
+     * Iterador em ordem sobre a versão da árvore existente no momento da chamada;
+     * escritas posteriores não o afetam.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return visao().iterator();
+    }
+
+    /**
+     * Retorna, em O(1), uma árvore persistente com a versão atual. Ela oferece todas
+     * as leituras da BinTree (select, range, stream...) sem locks, e escritas
+     * posteriores em qualquer uma das duas árvores não afetam a outra.
+     *
+     * @return snapshot da versão atual
+     */
+    public BinTreePersistente<T> snapshot() {
+        return new BinTreePersistente<>(comparator, root.get());
+    }
+
+    /**
+     * Visão somente para leitura da versão atual, para reaproveitar os caminhamentos
+     * da BinTree.
+     */
+    private BinTreeAVL<T> visao() {
+        return snapshot();
+    }
+}
@@ -0,0 +1,584 @@
+package lib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Árvore dividida em fragmentos por faixa de chaves, para cargas com muitas escritas
+ * vindas de várias threads.
+ *
+ * Cada fragmento é uma BinTreeAVL com o seu próprio lock e guarda as chaves de uma
+ * faixa [limite anterior, próximo limite). Operações sobre chaves de fragmentos
+ * diferentes não disputam nenhum lock: a thread consulta o mapa de limites (lido sem
+ * bloqueio), trava só o fragmento da chave e opera nele.
+ *
+ * A árvore começa com um único fragmento. Quando um fragmento passa a guardar mais de
+ * uma vez e meia a sua parte justa (total / máximo de fragmentos), ele é dividido pela
+ * mediana (select + split). Atingido o máximo de fragmentos, o par vizinho de menor
+ * tamanho é unido (join) para abrir espaço ou, se não houver par melhor, o limite com
+ * o vizinho menor é deslocado. Quando uma remoção deixa um fragmento com menos de um
+ * quarto da sua parte justa (total / fragmentos atuais), o par vizinho de menor
+ * tamanho é unido, então faixas esvaziadas não deixam fragmentos quase vazios (cujos
+ * locks as operações sobre a árvore inteira teriam de tomar). O rebalanceamento
+ * trava apenas os fragmentos envolvidos, publica um novo mapa e aposenta os
+ * fragmentos antigos; uma operação que travou um fragmento aposentado simplesmente
+ * consulta o mapa de novo.
+ *
+ * Como os fragmentos são faixas consecutivas, o caminhamento em ordem é a
+ * intercalação ordenada dos fragmentos, que neste caso se reduz a concatená-los.
+ * caminharEmOrdem e caminharEmNivel travam todos os fragmentos e veem um estado
+ * consistente; iterator() é fracamente consistente (percorre um fragmento por vez).
+ * altura() é a maior altura entre os fragmentos.
+ *
+ * O comparator deve poder ser usado por várias threads ao mesmo tempo.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeFragmentada<T> implements BinTreeInterface<T>, Iterable<T> {
+    /** Tamanho mínimo de um fragmento para que ele seja dividido. */
+    static final int LIMIAR_DIVISAO = 2048;
+    /** Quantidade máxima de elementos copiados por vez pelo iterador. */
+    private static final int LOTE_ITERADOR = 1024;
+    /** Marca, no iterador, que não há fragmento depois do atual. */
+    private static final Object FIM = new Object();
+
+    private final Comparator<T> comparator;
+    private final int maximoFragmentos;
+    private final LongAdder total = new LongAdder();
+    private final ReentrantLock rebalanceamento = new ReentrantLock(); // um rebalanceamento por vez
+    private volatile Mapa<T> mapa;
+
+    /**
+     * Um fragmento: uma árvore e o lock que a protege. Depois de aposentado o
+     * fragmento não é mais usado (os elementos já estão em fragmentos novos).
+     */
+    private static final class Fragmento<T> {
+        final ReentrantLock lock = new ReentrantLock();
+        final BinTreeAVL<T> arvore;
+        boolean aposentado;          // protegido por lock
+
+        Fragmento(BinTreeAVL<T> arvore) {
+            this.arvore = arvore;
+        }
+    }
+
+    /**
+     * Fragmentos em ordem e os limites entre eles: o fragmento i guarda as chaves
+     * maiores ou iguais a limites[i - 1] e menores que limites[i]. Imutável.
+     */
+    private static final class Mapa<T> {
+        final Object[] limites;
+        final Fragmento<T>[] fragmentos;
+
+        Mapa(Object[] limites, Fragmento<T>[] fragmentos) {
+            this.limites = limites;
+            this.fragmentos = fragmentos;
+        }
+    }
+
+    /**
+     * Cria a árvore com até 4 fragmentos por processador disponível.
+     *
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreeFragmentada(Comparator<T> comparator) {
+        this(comparator, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param comparator       objeto Comparator responsável por definir a ordem dos elementos
+     * @param maximoFragmentos quantidade máxima de fragmentos
+     */
+    public BinTreeFragmentada(Comparator<T> comparator, int maximoFragmentos) {
+        if (maximoFragmentos < 1) {
+            throw new IllegalArgumentException("A árvore precisa de pelo menos um fragmento.");
+        }
+        this.comparator = comparator;
+        this.maximoFragmentos = maximoFragmentos;
+        @SuppressWarnings("unchecked")
+        Fragmento<T>[] fragmentos = (Fragmento<T>[]) new Fragmento<?>[] {new Fragmento<>(new BinTreeAVL<>(comparator))};
+        this.mapa = new Mapa<>(new Object[0], fragmentos);
+    }
+
+    /**
+     * @return quantidade atual de fragmentos
+     */
+    public int quantidadeFragmentos() {
+        return mapa.fragmentos.length;
+    }
+
+    @Override
+    public void adicionar(T novoValor) {
+        Fragmento<T> f = travar(novoValor);
+        int tamanho;
+        try {
+            int antes = f.arvore.quantidadeNos();
+            f.arvore.adicionar(novoValor);
+            tamanho = f.arvore.quantidadeNos();
+            if (tamanho == antes) return; // duplicata
+            total.increment();
+        } finally {
+            f.lock.unlock();
+        }
+        if (desbalanceado(tamanho)) {
+            rebalancear(f);
+        }
+    }
+
+    @Override
+    public T pesquisar(T valor) {
+        Fragmento<T> f = travar(valor);
+        try {
+            return f.arvore.pesquisar(valor);
+        } finally {
+            f.lock.unlock();
+        }
+    }
+
+    /**
+     * Varre os fragmentos em ordem, um de cada vez, até encontrar o valor.
+     */
+    @Override
+    public T pesquisar(T valor, Comparator<T> comparador) {
+        varredura:
+        while (true) {
+            for (Fragmento<T> f : mapa.fragmentos) {
+                f.lock.lock();
+                try {
+                    // a árvore de um fragmento aposentado já pertence a outro: recomeça pelo mapa novo
+                    if (f.aposentado) continue varredura;
+                    T encontrado = f.arvore.pesquisar(valor, comparador);
+                    if (encontrado != null) return encontrado;
+                } finally {
+                    f.lock.unlock();
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public T remover(T valor) {
+        Fragmento<T> f = travar(valor);
+        T removido;
+        int tamanho;
+        try {
+            removido = f.arvore.remover(valor);
+            if (removido == null) return null;
+            total.decrement();
+            tamanho = f.arvore.quantidadeNos();
+        } finally {
+            f.lock.unlock();
+        }
+        if (esvaziado(tamanho)) {
+            unirMenorPar();
+        }
+        return removido;
+    }
+
+    /**
+     * @return a maior altura entre os fragmentos (-1 se a árvore estiver vazia)
+     */
+    @Override
+    public int altura() {
+        Mapa<T> m = travarTodos();
+        try {
+            int altura = -1;
+            for (Fragmento<T> f : m.fragmentos) {
+                altura = Math.max(altura, f.arvore.alturaNo(f.arvore.root));
+            }
+            return altura;
+        } finally {
+            destravarTodos(m);
+        }
+    }
+
+    @Override
+    public int quantidadeNos() {
+        return total.intValue();
+    }
+
+    @Override
+    public String caminharEmNivel() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        Mapa<T> m = travarTodos();
+        try {
+            // nível a nível, atravessando todos os fragmentos (as raízes formam o nível 0)
+            Queue<NodeTree<T>> queue = new ArrayDeque<>();
+            for (Fragmento<T> f : m.fragmentos) {
+                if (f.arvore.root != null) {
+                    queue.add(f.arvore.root);
+                }
+            }
+            while (!queue.isEmpty()) {
+                NodeTree<T> current = queue.poll();
+                sb.append(current.getValue().toString()).append(" \n ");
+                if (current.getChildLeft() != null) {
+                    queue.add(current.getChildLeft());
+                }
+                if (current.getChildRight() != null) {
+                    queue.add(current.getChildRight());
+                }
+            }
+        } finally {
+            destravarTodos(m);
+        }
+        // Remove o último " \n " extra
+        if (sb.length() >= 4) {
+            sb.setLength(sb.length() - 3);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        StringBuilder sb = new StringBuilder();
+        Mapa<T> m = travarTodos();
+        try {
+            for (Fragmento<T> f : m.fragmentos) {
+                String parte = f.arvore.caminharEmOrdem();
+                if (!parte.isEmpty()) {
+                    sb.append(parte).append(" ");
+                }
+            }
+        } finally {
+            destravarTodos(m);
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Iterador em ordem fracamente consistente: copia até LOTE_ITERADOR elementos de
+     * um fragmento por vez, continuando a partir do último elemento devolvido. Nunca
+     * devolve um elemento duas vezes nem fora de ordem, mas pode ou não refletir
+     * escritas feitas durante a iteração.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new IteradorFragmentos();
+    }
+
+    //-----------------------------------------------------------------
+    // Localização e travamento dos fragmentos
+    //-----------------------------------------------------------------
+
+    /**
+     * Trava e retorna o fragmento atual responsável por valor.
+     */
+    private Fragmento<T> travar(T valor) {
+        while (true) {
+            Mapa<T> m = mapa;
+            Fragmento<T> f = m.fragmentos[indice(m, valor)];
+            f.lock.lock();
+            if (!f.aposentado) return f;
+            f.lock.unlock(); // foi rebalanceado enquanto esperávamos: consulta o mapa novo
+        }
+    }
+
+    /**
+     * @return posição do fragmento de valor no mapa (quantidade de limites menores ou iguais a ele)
+     */
+    @SuppressWarnings("unchecked")
+    private int indice(Mapa<T> m, T valor) {
+        int lo = 0;
+        int hi = m.limites.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(valor, (T) m.limites[mid]) >= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Trava todos os fragmentos do mapa atual, em ordem.
+     */
+    private Mapa<T> travarTodos() {
+        while (true) {
+            Mapa<T> m = mapa;
+            int travados = 0;
+            boolean valido = true;
+            for (Fragmento<T> f : m.fragmentos) {
+                f.lock.lock();
+                travados++;
+                if (f.aposentado) {
+                    valido = false;
+                    break;
+                }
+            }
+            if (valido) return m;
+            for (int i = 0; i < travados; i++) {
+                m.fragmentos[i].lock.unlock();
+            }
+        }
+    }
+
+    private void destravarTodos(Mapa<T> m) {
+        for (Fragmento<T> f : m.fragmentos) {
+            f.lock.unlock();
+        }
+    }
+
+    //-----------------------------------------------------------------
+    // Rebalanceamento dos fragmentos
+    //-----------------------------------------------------------------
+
+    /**
+     * @return true se um fragmento com 'tamanho' elementos guarda mais de uma vez e
+     *         meia a sua parte justa do total
+     */
+    private boolean desbalanceado(int tamanho) {
+        return maximoFragmentos > 1 && tamanho >= LIMIAR_DIVISAO
+                && 2L * tamanho * maximoFragmentos > 3L * total.sum();
+    }
+
+    /**
+     * Indica se um fragmento com 'tamanho' elementos ficou abaixo da marca mínima: um
+     * quarto da parte justa entre os fragmentos atuais.
+     */
+    private boolean esvaziado(int tamanho) {
+        int n = mapa.fragmentos.length;
+        return n > 1 && 4L * tamanho * n <= total.sum();
+    }
+
+    /**
+     * Une o par vizinho de menor tamanho depois de remoções, desde que algum fragmento
+     * ainda esteja abaixo da marca mínima e a união não precise ser dividida de novo.
+     * Se outra thread já estiver rebalanceando, desiste: a próxima remoção tenta de novo.
+     */
+    private void unirMenorPar() {
+        if (!rebalanceamento.tryLock()) return;
+        try {
+            Mapa<T> m = mapa;
+            int menor = Integer.MAX_VALUE;
+            for (Fragmento<T> f : m.fragmentos) {
+                menor = Math.min(menor, tamanhoDe(f));
+            }
+            if (!esvaziado(menor)) return;
+            int par = menorPar(m, -1);
+            if (par >= 0 && !desbalanceado(tamanhoDe(m.fragmentos[par]) + tamanhoDe(m.fragmentos[par + 1]))) {
+                unir(m, par);
+            }
+        } finally {
+            rebalanceamento.unlock();
+        }
+    }
+
+    /**
+     * @return índice do primeiro fragmento do par vizinho de menor tamanho que não
+     *         contém o fragmento 'excluido' (-1 para não excluir), ou -1 se não houver
+     */
+    private int menorPar(Mapa<T> m, int excluido) {
+        int par = -1;
+        int menorPar = Integer.MAX_VALUE;
+        for (int j = 0; j + 1 < m.fragmentos.length; j++) {
+            if (j == excluido || j + 1 == excluido) continue;
+            int soma = tamanhoDe(m.fragmentos[j]) + tamanhoDe(m.fragmentos[j + 1]);
+            if (soma < menorPar) {
+                menorPar = soma;
+                par = j;
+            }
+        }
+        return par;
+    }
+
+    /**
+     * Divide o fragmento f (abrindo espaço se já houver o máximo de fragmentos). Se
+     * outra thread já estiver rebalanceando, desiste: a próxima escrita tenta de novo.
+     */
+    private void rebalancear(Fragmento<T> f) {
+        if (!rebalanceamento.tryLock()) return;
+        try {
+            Mapa<T> m = mapa;
+            int i = posicao(m, f);
+            if (i < 0) return; // f já foi rebalanceado
+            int tamanho = tamanhoDe(f);
+            if (!desbalanceado(tamanho)) return;
+
+            if (m.fragmentos.length < maximoFragmentos) {
+                dividir(m, i);
+                return;
+            }
+            // no máximo de fragmentos: une o par vizinho menor (sem f) e então divide f
+            int par = menorPar(m, i);
+            if (par >= 0 && tamanhoDe(m.fragmentos[par]) + tamanhoDe(m.fragmentos[par + 1]) < tamanho / 2) {
+                m = unir(m, par);
+                dividir(m, par < i ? i - 1 : i);
+                return;
+            }
+            // sem par melhor: desloca o limite entre f e o vizinho menor
+            int vizinho = -1;
+            if (i > 0) vizinho = i - 1;
+            if (i + 1 < m.fragmentos.length
+                    && (vizinho < 0 || tamanhoDe(m.fragmentos[i + 1]) < tamanhoDe(m.fragmentos[vizinho]))) {
+                vizinho = i + 1;
+            }
+            if (vizinho >= 0 && tamanhoDe(m.fragmentos[vizinho]) < tamanho / 2) {
+                int esquerda = Math.min(i, vizinho);
+                m = unir(m, esquerda);
+                dividir(m, esquerda);
+            }
+        } finally {
+            rebalanceamento.unlock();
+        }
+    }
+
+    /**
+     * Divide o fragmento i do mapa atual pela mediana e publica o novo mapa.
+     * Chamado com o lock de rebalanceamento.
+     */
+    private void dividir(Mapa<T> m, int i) {
+        Fragmento<T> f = m.fragmentos[i];
+        f.lock.lock();
+        try {
+            BinTreeAVL<T> arvore = f.arvore;
+            T mediana = arvore.select(arvore.quantidadeNos() / 2);
+            BinTreeAVL<T> maiores = (BinTreeAVL<T>) arvore.split(mediana);
+
+            int n = m.fragmentos.length;
+            @SuppressWarnings("unchecked")
+            Fragmento<T>[] fragmentos = (Fragmento<T>[]) new Fragmento<?>[n + 1];
+            Object[] limites = new Object[n];
+            System.arraycopy(m.fragmentos, 0, fragmentos, 0, i);
+            System.arraycopy(m.fragmentos, i + 1, fragmentos, i + 2, n - i - 1);
+            fragmentos[i] = new Fragmento<>(arvore);
+            fragmentos[i + 1] = new Fragmento<>(maiores);
+            System.arraycopy(m.limites, 0, limites, 0, i);
+            System.arraycopy(m.limites, i, limites, i + 1, n - 1 - i);
+            limites[i] = mediana;
+
+            mapa = new Mapa<>(limites, fragmentos);
+            f.aposentado = true;
+        } finally {
+            f.lock.unlock();
+        }
+    }
+
+    /**
+     * Une os fragmentos i e i + 1 do mapa e publica o novo mapa, que é retornado.
+     * Chamado com o lock de rebalanceamento.
+     */
+    private Mapa<T> unir(Mapa<T> m, int i) {
+        Fragmento<T> a = m.fragmentos[i];
+        Fragmento<T> b = m.fragmentos[i + 1];
+        a.lock.lock();
+        b.lock.lock();
+        try {
+            a.arvore.join(b.arvore);
+
+            int n = m.fragmentos.length;
+            @SuppressWarnings("unchecked")
+            Fragmento<T>[] fragmentos = (Fragmento<T>[]) new Fragmento<?>[n - 1];
+            Object[] limites = new Object[n - 2];
+            System.arraycopy(m.fragmentos, 0, fragmentos, 0, i);
+            System.arraycopy(m.fragmentos, i + 2, fragmentos, i + 1, n - i - 2);
+            fragmentos[i] = new Fragmento<>(a.arvore);
+            System.arraycopy(m.limites, 0, limites, 0, i);
+            System.arraycopy(m.limites, i + 1, limites, i, n - 2 - i);
+
+            Mapa<T> novo = new Mapa<>(limites, fragmentos);
+            mapa = novo;
+            a.aposentado = true;
+            b.aposentado = true;
+            return novo;
+        } finally {
+            b.lock.unlock();
+            a.lock.unlock();
+        }
+    }
+
+    private static <T> int posicao(Mapa<T> m, Fragmento<T> f) {
+        for (int i = 0; i < m.fragmentos.length; i++) {
+            if (m.fragmentos[i] == f) return i;
+        }
+        return -1;
+    }
+
+    private static int tamanhoDe(Fragmento<?> f) {
+        f.lock.lock();
+        try {
+            return f.arvore.quantidadeNos();
+        } finally {
+            f.lock.unlock();
+        }
+    }
+
+    //-----------------------------------------------------------------
+    // Iterador
+    //-----------------------------------------------------------------
+
+    private class IteradorFragmentos implements Iterator<T> {
+        private final List<T> lote = new ArrayList<>();
+        private int pos;
+        private T desde;            // próxima chave a procurar (null = início da árvore)
+        private boolean inclusivo;  // se 'desde' pode ser devolvido
+        private boolean fim;
+
+        @Override
+        public boolean hasNext() {
+            while (pos == lote.size() && !fim) {
+                carregar();
+            }
+            return pos < lote.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return lote.get(pos++);
+        }
+
+        /**
+         * Copia o próximo trecho do fragmento que contém 'desde'.
+         */
+        @SuppressWarnings("unchecked")
+        private void carregar() {
+            lote.clear();
+            pos = 0;
+            Object proximoLimite;
+            while (true) {
+                Mapa<T> m = mapa;
+                int i = desde == null ? 0 : indice(m, desde);
+                Fragmento<T> f = m.fragmentos[i];
+                f.lock.lock();
+                try {
+                    if (f.aposentado) continue;
+                    Iterator<T> it = f.arvore.range(desde, null);
+                    while (it.hasNext() && lote.size() < LOTE_ITERADOR) {
+                        T value = it.next();
+                        if (!inclusivo && desde != null && comparator.compare(value, desde) == 0) continue;
+                        lote.add(value);
+                    }
+                    proximoLimite = it.hasNext() ? null : (i < m.limites.length ? m.limites[i] : FIM);
+                } finally {
+                    f.lock.unlock();
+                }
+                break;
+            }
+            if (proximoLimite == null) {
+                // o lote encheu: continua depois do último elemento copiado
+                desde = lote.get(lote.size() - 1);
+                inclusivo = false;
+            } else if (proximoLimite == FIM) {
+                fim = true;
+            } else {
+                desde = (T) proximoLimite;
+                inclusivo = true;
+            }
+        }
+    }
+}
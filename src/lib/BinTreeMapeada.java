@@ -0,0 +1,529 @@
+package lib;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Árvore AVL guardada fora do heap, em um arquivo mapeado em memória (FileChannel.map).
+ *
+ * Cada nó é um registro no arquivo, identificado pela sua posição (offset): um
+ * cabeçalho de largura fixa (filho esquerdo, filho direito, altura e tamanho do valor)
+ * seguido do valor serializado por um CodecValor. Não há objetos por nó no heap, então
+ * o coletor de lixo não percorre a árvore e o tamanho dela é limitado pelo disco, não
+ * por -Xmx: as páginas usadas ficam no cache de páginas do sistema operacional.
+ *
+ * O arquivo é mapeado em segmentos de 64 MiB (um MappedByteBuffer cada), mapeados
+ * conforme a árvore cresce. Os registros têm capacidade em potência de 2 e nunca
+ * cruzam um segmento; registros liberados por remover vão para uma lista por
+ * capacidade e são reaproveitados. A raiz, a quantidade de elementos e as listas
+ * ficam no cabeçalho do arquivo, então abrir de novo o mesmo arquivo (com o mesmo
+ * comparator e codec) recupera a árvore sem reconstruir nada.
+ *
+ * As comparações decodificam o valor de cada nó visitado (um objeto temporário por
+ * nó). Não há journal: se o processo terminar no meio de uma operação o arquivo pode
+ * ficar inconsistente; sincronizar (ou close) grava as páginas alteradas no disco.
+ * Não é thread-safe.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeMapeada<T> implements BinTreeInterface<T>, Iterable<T>, Closeable {
+    static final int MAGICO = 0x41525644;            // "ARVD"
+    static final int VERSAO = 1;
+    static final int BITS_SEGMENTO = 26;
+    static final long TAMANHO_SEGMENTO = 1L << BITS_SEGMENTO;
+    private static final long NULO = 0;              // o offset 0 é o cabeçalho do arquivo
+
+    // cabeçalho do arquivo
+    private static final int H_MAGICO = 0;
+    private static final int H_VERSAO = 4;
+    private static final int H_RAIZ = 8;
+    private static final int H_QUANTIDADE = 16;
+    private static final int H_FIM = 24;             // próximo offset livre no fim do arquivo
+    private static final int H_LIVRES = 32;          // uma lista de registros livres por capacidade
+    private static final int MENOR_CLASSE = 5;       // registros de 32 bytes
+    private static final int CLASSES = BITS_SEGMENTO + 1;
+    private static final int TAMANHO_CABECALHO = 512;
+
+    // cabeçalho de cada nó
+    private static final int N_ESQUERDA = 0;
+    private static final int N_DIREITA = 8;
+    private static final int N_ALTURA = 16;
+    private static final int N_TAMANHO = 20;
+    private static final int CABECALHO_NO = 24;
+
+    private final Comparator<T> comparator;
+    private final CodecValor<T> codec;
+    private final FileChannel canal;
+    private final List<MappedByteBuffer> segmentos = new ArrayList<>();
+    private ByteBuffer codificado = ByteBuffer.allocate(256);
+    private T removido;                              // valor encontrado pela remoção em andamento
+
+    /**
+     * Abre a árvore guardada no arquivo, ou cria uma vazia se o arquivo não existir
+     * ou estiver vazio.
+     *
+     * @param arquivo    arquivo da árvore
+     * @param comparator critério de ordem (o mesmo usado quando a árvore foi criada)
+     * @param codec      conversor dos valores para bytes
+     * @throws IOException se o arquivo existir e não for uma árvore mapeada (nesse caso
+     *                     o arquivo não é alterado)
+     */
+    public BinTreeMapeada(Path arquivo, Comparator<T> comparator, CodecValor<T> codec) throws IOException {
+        this.comparator = comparator;
+        this.codec = codec;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long tamanho = canal.size();
+            if (tamanho == 0) {
+                mapear(0);
+                ByteBuffer h = segmentos.get(0);
+                h.putInt(H_MAGICO, MAGICO);
+                h.putInt(H_VERSAO, VERSAO);
+                h.putLong(H_FIM, TAMANHO_CABECALHO);
+            } else {
+                // o cabeçalho é conferido antes de mapear: map aumenta o arquivo, e um
+                // arquivo que não é uma árvore não pode ser alterado
+                verificarCabecalho(arquivo, tamanho);
+                int quantidade = (int) ((tamanho + TAMANHO_SEGMENTO - 1) >>> BITS_SEGMENTO);
+                mapear(quantidade - 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    //-----------------------------------------------------------------
+    // Acesso ao arquivo
+    //-----------------------------------------------------------------
+
+    /**
+     * Lê o cabeçalho de um arquivo existente sem mapeá-lo e confere o número mágico,
+     * a versão e o fim dos registros.
+     *
+     * @throws IOException se o arquivo não for uma árvore mapeada válida
+     */
+    private void verificarCabecalho(Path arquivo, long tamanho) throws IOException {
+        if (tamanho < TAMANHO_CABECALHO) {
+            throw new IOException("O arquivo não é uma árvore mapeada: " + arquivo);
+        }
+        ByteBuffer h = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        while (h.hasRemaining()) {
+            if (canal.read(h, h.position()) < 0) {
+                throw new IOException("O arquivo não é uma árvore mapeada: " + arquivo);
+            }
+        }
+        if (h.getInt(H_MAGICO) != MAGICO) {
+            throw new IOException("O arquivo não é uma árvore mapeada: " + arquivo);
+        }
+        if (h.getInt(H_VERSAO) != VERSAO) {
+            throw new IOException("Versão de árvore mapeada não suportada: " + h.getInt(H_VERSAO));
+        }
+        long fim = h.getLong(H_FIM);
+        if (fim < TAMANHO_CABECALHO || fim > tamanho) {
+            throw new IOException("Árvore mapeada corrompida: fim dos registros " + fim
+                    + " fora do arquivo de " + tamanho + " bytes.");
+        }
+    }
+
+    /**
+     * Mapeia os segmentos até o de índice 'ultimo' (aumentando o arquivo se preciso).
+     */
+    private void mapear(int ultimo) throws IOException {
+        while (segmentos.size() <= ultimo) {
+            MappedByteBuffer s = canal.map(FileChannel.MapMode.READ_WRITE,
+                    (long) segmentos.size() << BITS_SEGMENTO, TAMANHO_SEGMENTO);
+            s.order(ByteOrder.LITTLE_ENDIAN);
+            segmentos.add(s);
+        }
+    }
+
+    private ByteBuffer segmento(long no) {
+        return segmentos.get((int) (no >>> BITS_SEGMENTO));
+    }
+
+    private static int posicao(long no) {
+        return (int) (no & (TAMANHO_SEGMENTO - 1));
+    }
+
+    private ByteBuffer cabecalho() {
+        return segmentos.get(0);
+    }
+
+    private long raiz() {
+        return cabecalho().getLong(H_RAIZ);
+    }
+
+    private void setRaiz(long no) {
+        cabecalho().putLong(H_RAIZ, no);
+    }
+
+    private long esquerda(long no) {
+        return segmento(no).getLong(posicao(no) + N_ESQUERDA);
+    }
+
+    private long direita(long no) {
+        return segmento(no).getLong(posicao(no) + N_DIREITA);
+    }
+
+    private void setEsquerda(long no, long filho) {
+        segmento(no).putLong(posicao(no) + N_ESQUERDA, filho);
+    }
+
+    private void setDireita(long no, long filho) {
+        segmento(no).putLong(posicao(no) + N_DIREITA, filho);
+    }
+
+    private int alturaNo(long no) {
+        return no == NULO ? -1 : segmento(no).getInt(posicao(no) + N_ALTURA);
+    }
+
+    private T valor(long no) {
+        ByteBuffer s = segmento(no);
+        int p = posicao(no);
+        return codec.ler(s.slice(p + CABECALHO_NO, s.getInt(p + N_TAMANHO)));
+    }
+
+    //-----------------------------------------------------------------
+    // Alocação de registros
+    //-----------------------------------------------------------------
+
+    private static int classe(int bytes) {
+        return Math.max(MENOR_CLASSE, 32 - Integer.numberOfLeadingZeros(bytes - 1));
+    }
+
+    /**
+     * Grava um novo nó folha com o valor já codificado em 'codificado'.
+     */
+    private long novoNo() {
+        int tamanho = codificado.position();
+        int bytes = CABECALHO_NO + tamanho;
+        if (bytes > TAMANHO_SEGMENTO) {
+            throw new IllegalArgumentException("Valor grande demais: " + tamanho + " bytes.");
+        }
+        int k = classe(bytes);
+        ByteBuffer h = cabecalho();
+        long no = h.getLong(H_LIVRES + 8 * k);
+        if (no != NULO) {
+            h.putLong(H_LIVRES + 8 * k, esquerda(no));
+        } else {
+            long capacidade = 1L << k;
+            no = h.getLong(H_FIM);
+            if ((no >>> BITS_SEGMENTO) != ((no + capacidade - 1) >>> BITS_SEGMENTO)) {
+                // não cabe no resto do segmento: começa no próximo
+                no = ((no >>> BITS_SEGMENTO) + 1) << BITS_SEGMENTO;
+            }
+            try {
+                mapear((int) (no >>> BITS_SEGMENTO));
+            } catch (IOException e) {
+                throw new IllegalStateException("Não foi possível aumentar o arquivo da árvore.", e);
+            }
+            h.putLong(H_FIM, no + capacidade);
+        }
+        ByteBuffer s = segmento(no);
+        int p = posicao(no);
+        s.putLong(p + N_ESQUERDA, NULO);
+        s.putLong(p + N_DIREITA, NULO);
+        s.putInt(p + N_ALTURA, 0);
+        s.putInt(p + N_TAMANHO, tamanho);
+        s.put(p + CABECALHO_NO, codificado.array(), 0, tamanho);
+        h.putLong(H_QUANTIDADE, h.getLong(H_QUANTIDADE) + 1);
+        return no;
+    }
+
+    /**
+     * Devolve o registro do nó à lista livre da sua capacidade.
+     */
+    private void liberar(long no) {
+        int k = classe(CABECALHO_NO + segmento(no).getInt(posicao(no) + N_TAMANHO));
+        ByteBuffer h = cabecalho();
+        setEsquerda(no, h.getLong(H_LIVRES + 8 * k));
+        h.putLong(H_LIVRES + 8 * k, no);
+        h.putLong(H_QUANTIDADE, h.getLong(H_QUANTIDADE) - 1);
+    }
+
+    /**
+     * Codifica o valor em 'codificado', aumentando o buffer se ele não couber.
+     */
+    private void codificar(T valor) {
+        while (true) {
+            codificado.clear();
+            try {
+                codec.escrever(valor, codificado);
+                return;
+            } catch (BufferOverflowException e) {
+                codificado = ByteBuffer.allocate(codificado.capacity() * 2);
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------
+    // Operações da BinTreeInterface
+    //-----------------------------------------------------------------
+
+    @Override
+    public void adicionar(T novoValor) {
+        codificar(novoValor);
+        setRaiz(inserir(raiz(), novoValor));
+    }
+
+    @Override
+    public T pesquisar(T valor) {
+        long no = raiz();
+        while (no != NULO) {
+            T atual = valor(no);
+            int comp = comparator.compare(valor, atual);
+            if (comp == 0) {
+                return atual;
+            }
+            no = comp < 0 ? esquerda(no) : direita(no);
+        }
+        return null;
+    }
+
+    /**
+     * Percorre os elementos em ordem e para no primeiro igual segundo o comparator
+     * informado (decodifica cada elemento visitado).
+     */
+    @Override
+    public T pesquisar(T valor, Comparator<T> comparador) {
+        for (T atual : this) {
+            if (comparador.compare(valor, atual) == 0) {
+                return atual;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public T remover(T valor) {
+        removido = null;
+        setRaiz(retirar(raiz(), valor));
+        T r = removido;
+        removido = null;
+        return r;
+    }
+
+    @Override
+    public int altura() {
+        return alturaNo(raiz());
+    }
+
+    @Override
+    public int quantidadeNos() {
+        return (int) cabecalho().getLong(H_QUANTIDADE);
+    }
+
+    @Override
+    public String caminharEmNivel() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        long raiz = raiz();
+        if (raiz != NULO) {
+            long[] fila = new long[quantidadeNos()];
+            int inicio = 0;
+            int fim = 0;
+            fila[fim++] = raiz;
+            while (inicio < fim) {
+                long no = fila[inicio++];
+                sb.append(valor(no).toString()).append(" \n ");
+                if (esquerda(no) != NULO) fila[fim++] = esquerda(no);
+                if (direita(no) != NULO) fila[fim++] = direita(no);
+            }
+            // Remove o último " \n " extra
+            sb.setLength(sb.length() - 3);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        StringBuilder sb = new StringBuilder();
+        for (T v : this) {
+            sb.append(v).append(" ");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Iterador em ordem crescente, que decodifica cada elemento ao visitá-lo. A árvore
+     * não deve ser alterada enquanto o iterador estiver em uso.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final long[] pilha = new long[altura() + 1];
+            private int topo;
+
+            {
+                descer(raiz());
+            }
+
+            private void descer(long no) {
+                while (no != NULO) {
+                    pilha[topo++] = no;
+                    no = esquerda(no);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return topo > 0;
+            }
+
+            @Override
+            public T next() {
+                if (topo == 0) {
+                    throw new NoSuchElementException();
+                }
+                long no = pilha[--topo];
+                descer(direita(no));
+                return valor(no);
+            }
+        };
+    }
+
+    /**
+     * Grava no disco as páginas alteradas do arquivo.
+     */
+    public void sincronizar() {
+        for (MappedByteBuffer s : segmentos) {
+            s.force();
+        }
+    }
+
+    /**
+     * Sincroniza e fecha o arquivo. A árvore não pode mais ser usada. (O mapeamento
+     * só é desfeito quando os buffers forem coletados.)
+     */
+    @Override
+    public void close() throws IOException {
+        sincronizar();
+        segmentos.clear();
+        canal.close();
+    }
+
+    //-----------------------------------------------------------------
+    // Inserção e Remoção
+    //-----------------------------------------------------------------
+
+    private long inserir(long no, T valor) {
+        if (no == NULO) {
+            return novoNo();
+        }
+        int comp = comparator.compare(valor, valor(no));
+        if (comp < 0) {
+            setEsquerda(no, inserir(esquerda(no), valor));
+        } else if (comp > 0) {
+            setDireita(no, inserir(direita(no), valor));
+        } else {
+            return no; // duplicata
+        }
+        return balancear(no);
+    }
+
+    private long retirar(long no, T valor) {
+        if (no == NULO) {
+            return NULO; // não encontrado
+        }
+        T atual = valor(no);
+        int comp = comparator.compare(valor, atual);
+        if (comp < 0) {
+            setEsquerda(no, retirar(esquerda(no), valor));
+        } else if (comp > 0) {
+            setDireita(no, retirar(direita(no), valor));
+        } else {
+            removido = atual;
+            long esq = esquerda(no);
+            long dir = direita(no);
+            liberar(no);
+            if (esq == NULO) return dir;
+            if (dir == NULO) return esq;
+            // dois filhos: o sucessor (menor da subárvore direita) é religado no lugar do nó
+            long sucessor = dir;
+            while (esquerda(sucessor) != NULO) {
+                sucessor = esquerda(sucessor);
+            }
+            setDireita(sucessor, retirarMinimo(dir));
+            setEsquerda(sucessor, esq);
+            return balancear(sucessor);
+        }
+        return balancear(no);
+    }
+
+    /**
+     * Desliga o menor nó da subárvore (sem liberá-lo) e retorna a nova raiz dela.
+     */
+    private long retirarMinimo(long no) {
+        if (esquerda(no) == NULO) {
+            return direita(no);
+        }
+        setEsquerda(no, retirarMinimo(esquerda(no)));
+        return balancear(no);
+    }
+
+    //-----------------------------------------------------------------
+    // Balanceamento
+    //-----------------------------------------------------------------
+
+    private void atualizar(long no) {
+        segmento(no).putInt(posicao(no) + N_ALTURA, 1 + Math.max(alturaNo(esquerda(no)), alturaNo(direita(no))));
+    }
+
+    private int fator(long no) {
+        return alturaNo(esquerda(no)) - alturaNo(direita(no));
+    }
+
+    private long rotacaoDireita(long y) {
+        long x = esquerda(y);
+        setEsquerda(y, direita(x));
+        setDireita(x, y);
+        atualizar(y);
+        atualizar(x);
+        return x;
+    }
+
+    private long rotacaoEsquerda(long x) {
+        long y = direita(x);
+        setDireita(x, esquerda(y));
+        setEsquerda(y, x);
+        atualizar(x);
+        atualizar(y);
+        return y;
+    }
+
+    /**
+     * Atualiza a altura do nó e aplica a rotação necessária (LL, LR, RR ou RL).
+     */
+    private long balancear(long no) {
+        atualizar(no);
+        int balance = fator(no);
+        if (balance > 1) {
+            if (fator(esquerda(no)) < 0) {
+                setEsquerda(no, rotacaoEsquerda(esquerda(no)));
+            }
+            return rotacaoDireita(no);
+        }
+        if (balance < -1) {
+            if (fator(direita(no)) > 0) {
+                setDireita(no, rotacaoDireita(direita(no)));
+            }
+            return rotacaoEsquerda(no);
+        }
+        return no;
+    }
+}
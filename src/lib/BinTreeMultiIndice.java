@@ -0,0 +1,158 @@
+package lib;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto de árvores AVL que indexam os mesmos elementos por critérios diferentes.
+ *
+ * Há sempre um índice principal, definido pelo comparator do construtor, que decide
+ * o que é duplicata e é usado por pesquisar(valor), remover e pelos caminhamentos.
+ * Índices secundários podem ser registrados com adicionarIndice(comparator); cada um
+ * é uma BinTreeAVL ordenada pelo comparator secundário e, em caso de empate, pelo
+ * principal (para aceitar vários elementos com a mesma chave secundária, como dois
+ * contatos com o mesmo telefone). Adições e remoções são repassadas a todos os índices.
+ *
+ * pesquisar(valor, comparator) usa o índice registrado para aquele comparator, em
+ * O(log n). Comparators não registrados caem na varredura da BinTree, que para no
+ * primeiro elemento encontrado. Os índices são localizados pelo equals do comparator,
+ * então a mesma instância usada no registro deve ser passada na pesquisa.
+ *
+ * @param <T> tipo dos elementos armazenados
+ */
+public class BinTreeMultiIndice<T> implements BinTreeInterface<T>, Iterable<T> {
+    private final BinTreeAVL<T> principal;                          // índice principal
+    private final Comparator<T> comparator;                         // critério do índice principal
+    private final Map<Comparator<T>, BinTreeAVL<T>> indices;        // índices secundários
+
+    /**
+     * @param comparator critério do índice principal
+     */
+    public BinTreeMultiIndice(Comparator<T> comparator) {
+        this.comparator = comparator;
+        this.principal = new BinTreeAVL<>(comparator);
+        this.indices = new HashMap<>();
+    }
+
+    /**
+     * Registra um índice secundário e o preenche com os elementos já armazenados.
+     *
+     * @param comp critério do novo índice
+     */
+    public void adicionarIndice(Comparator<T> comp) {
+        if (indices.containsKey(comp)) return;
+        BinTreeAVL<T> indice = new BinTreeAVL<>(comp.thenComparing(comparator));
+        for (T value : principal) {
+            indice.adicionar(value);
+        }
+        indices.put(comp, indice);
+    }
+
+    /**
+     * Remove um índice secundário. Pesquisas por esse comparator voltam a varrer a árvore.
+     *
+     * @param comp critério do índice a ser removido
+     */
+    public void removerIndice(Comparator<T> comp) {
+        indices.remove(comp);
+    }
+
+    /**
+     * Insere o valor em todos os índices. Valores duplicados (segundo o comparator
+     * principal) são ignorados, como na BinTree.
+     *
+     * @param novoValor valor a ser adicionado
+     */
+    @Override
+    public void adicionar(T novoValor) {
+        if (principal.pesquisar(novoValor) != null) return;
+        principal.adicionar(novoValor);
+        for (BinTreeAVL<T> indice : indices.values()) {
+            indice.adicionar(novoValor);
+        }
+    }
+
+    @Override
+    public T pesquisar(T valor) {
+        return principal.pesquisar(valor);
+    }
+
+    /**
+     * Pesquisa pelo comparator informado. Se houver um índice registrado para ele a
+     * busca desce pela árvore desse índice; caso contrário varre o índice principal.
+     *
+     * @param valor      valor a ser buscado (preenchido de acordo com o comparador)
+     * @param comparador Comparator a ser utilizado na busca
+     * @return o elemento encontrado ou null
+     */
+    @Override
+    public T pesquisar(T valor, Comparator<T> comparador) {
+        BinTreeAVL<T> indice = indices.get(comparador);
+        if (indice == null) {
+            return principal.pesquisar(valor, comparador);
+        }
+        // o índice está ordenado primeiro por 'comparador', então basta descer por ele
+        NodeTree<T> node = indice.root;
+        while (node != null) {
+            int comp = comparador.compare(valor, node.getValue());
+            if (comp == 0) {
+                return node.getValue();
+            }
+            node = comp < 0 ? node.getChildLeft() : node.getChildRight();
+        }
+        return null;
+    }
+
+    /**
+     * Remove o valor do índice principal e, se ele existia, o elemento removido de
+     * todos os índices secundários.
+     *
+     * @param valor valor a ser removido (preenchido de acordo com o comparator principal)
+     * @return o elemento removido ou null
+     */
+    @Override
+    public T remover(T valor) {
+        T removed = principal.remover(valor);
+        if (removed != null) {
+            for (BinTreeAVL<T> indice : indices.values()) {
+                indice.remover(removed);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public int altura() {
+        return principal.altura();
+    }
+
+    @Override
+    public int quantidadeNos() {
+        return principal.quantidadeNos();
+    }
+
+    @Override
+    public String caminharEmNivel() {
+        return principal.caminharEmNivel();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        return principal.caminharEmOrdem();
+    }
+
+    /**
+     * @see BinTree#pagina(int, int)
+     */
+    public List<T> pagina(int inicio, int quantidade) {
+        return principal.pagina(inicio, quantidade);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return principal.iterator();
+    }
+}
@@ -0,0 +1,237 @@
+package lib;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Árvore AVL persistente (imutável por versão), implementada por cópia de caminho.
+ *
+ * adicionar e remover não alteram nenhum nó existente: criam cópias dos nós do
+ * caminho (CopiaDeCaminho) e trocam a raiz por uma nova que compartilha com a
+ * anterior todas as subárvores não tocadas. Por isso snapshot() custa O(1): devolve
+ * outra BinTreePersistente apontando para a raiz atual, que continua mostrando
+ * exatamente aqueles elementos por mais que a árvore original seja alterada depois.
+ * Todos os métodos de leitura da BinTree (pesquisas, caminhamentos, iterator,
+ * stream, select, range...) funcionam normalmente sobre o snapshot, sem locks, e
+ * o mesmo snapshot pode ser lido por várias threads ao mesmo tempo: as leituras
+ * não alteram nenhum estado da árvore (cada caminhamento usa a sua própria pilha).
+ *
+ * A árvore aceita um escritor por vez. Leitores de outras threads podem chamar
+ * snapshot() a qualquer momento: a raiz é publicada em um campo volátil ao fim de
+ * cada escrita.
+ *
+ * As operações herdadas que alteram nós no lugar (lotes, split/join e operações de
+ * conjunto) primeiro copiam a árvore desta versão (O(n)) para não afetar snapshots.
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreePersistente<T> extends BinTreeAVL<T> {
+    private CopiaDeCaminho<T> copia;          // com métricas ativas, usa o comparator que conta
+    private volatile NodeTree<T> publicada;   // última versão completa, lida por snapshot()
+
+    /**
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreePersistente(Comparator<T> comparator) {
+        this(comparator, null);
+    }
+
+    /**
+     * Cria uma árvore sobre uma versão já existente (usada pelos snapshots).
+     */
+    BinTreePersistente(Comparator<T> comparator, NodeTree<T> versao) {
+        super(comparator);
+        this.copia = new CopiaDeCaminho<>(comparator);
+        this.root = versao;
+        this.publicada = versao;
+    }
+
+    /**
+     * Retorna, em O(1), uma cópia independente do estado atual da árvore. Alterações
+     * posteriores nesta árvore não aparecem no snapshot e vice-versa.
+     *
+     * @return nova árvore persistente com os mesmos elementos
+     */
+    public BinTreePersistente<T> snapshot() {
+        return new BinTreePersistente<>(comparadorOriginal(), publicada);
+    }
+
+    @Override
+    public void adicionar(T newValue) {
+        MetricasArvore metricas = getMetricas();
+        if (metricas != null) {
+            long comparacoes = comparacoesContadas();
+            long inicio = System.nanoTime();
+            publicar(copia.inserir(root, newValue));
+            metricas.registrar(MetricasArvore.ADICIONAR, comparacoesContadas() - comparacoes, System.nanoTime() - inicio);
+            return;
+        }
+        publicar(copia.inserir(root, newValue));
+    }
+
+    @Override
+    public T remover(T value) {
+        MetricasArvore metricas = getMetricas();
+        if (metricas != null) {
+            long comparacoes = comparacoesContadas();
+            long inicio = System.nanoTime();
+            T removido = retirarPorCopia(value);
+            metricas.registrar(MetricasArvore.REMOVER, comparacoesContadas() - comparacoes, System.nanoTime() - inicio);
+            return removido;
+        }
+        return retirarPorCopia(value);
+    }
+
+    private T retirarPorCopia(T value) {
+        CopiaDeCaminho.Remocao<T> r = copia.remover(root, value);
+        if (r.removido != null) {
+            publicar(r.raiz);
+        }
+        return r.removido;
+    }
+
+    @Override
+    public int adicionarTodos(Collection<? extends T> valores) {
+        int antes = quantidadeNos();
+        NodeTree<T> versao = root;
+        for (T valor : valores) {
+            versao = copia.inserir(versao, valor);
+        }
+        publicar(versao);
+        return quantidadeNos() - antes;
+    }
+
+    @Override
+    public int removerTodos(Collection<? extends T> valores) {
+        int antes = quantidadeNos();
+        NodeTree<T> versao = root;
+        for (T valor : valores) {
+            versao = copia.remover(versao, valor).raiz;
+        }
+        publicar(versao);
+        return antes - quantidadeNos();
+    }
+
+    @Override
+    public BinTree<T> split(T chave) {
+        desacoplar();
+        BinTree<T> maiores = super.split(chave);
+        publicar(root);
+        ((BinTreePersistente<T>) maiores).publicar(maiores.root);
+        return maiores;
+    }
+
+    @Override
+    public void join(BinTree<T> maiores) {
+        desacoplar();
+        // os nós de 'maiores' também podem estar em snapshots: junta uma cópia
+        BinTree<T> copiaMaiores = novaArvore();
+        copiaMaiores.root = OperacoesConjunto.copiar(maiores.root);
+        super.join(copiaMaiores);
+        maiores.root = null;
+        if (maiores instanceof BinTreePersistente) {
+            ((BinTreePersistente<T>) maiores).publicar(null);
+        }
+        publicar(root);
+    }
+
+    @Override
+    public void uniao(BinTree<T> outra) {
+        desacoplar();
+        super.uniao(outra);
+        publicar(root);
+    }
+
+    @Override
+    public void intersecao(BinTree<T> outra) {
+        desacoplar();
+        super.intersecao(outra);
+        publicar(root);
+    }
+
+    @Override
+    public void diferenca(BinTree<T> outra) {
+        desacoplar();
+        super.diferenca(outra);
+        publicar(root);
+    }
+
+    @Override
+    public void uniaoParalela(BinTree<T> outra) {
+        desacoplar();
+        super.uniaoParalela(outra);
+        publicar(root);
+    }
+
+    @Override
+    public void intersecaoParalela(BinTree<T> outra) {
+        desacoplar();
+        super.intersecaoParalela(outra);
+        publicar(root);
+    }
+
+    @Override
+    public void diferencaParalela(BinTree<T> outra) {
+        desacoplar();
+        super.diferencaParalela(outra);
+        publicar(root);
+    }
+
+    /**
+     * A construção em lote cria somente nós novos: basta publicar a nova raiz.
+     */
+    @Override
+    protected void construirBalanceada(Object[] values, int n) {
+        super.construirBalanceada(values, n);
+        publicar(root);
+    }
+
+    @Override
+    protected BinTree<T> novaArvore() {
+        return new BinTreePersistente<>(comparadorOriginal());
+    }
+
+    /**
+     * Não faz nada: os nós são compartilhados com os snapshots e nunca são
+     * reaproveitados, então a árvore persistente não usa pool.
+     *
+     * @param capacidade ignorada
+     */
+    @Override
+    public void usarPool(int capacidade) {
+    }
+
+    /**
+     * Ativa as métricas da BinTree e passa a fazer a cópia de caminho com o comparator
+     * que conta, então adicionar e remover também são medidos e as rotações da cópia
+     * de caminho são contadas. Os snapshots tirados depois não herdam as métricas.
+     */
+    @Override
+    public MetricasArvore ativarMetricas() {
+        MetricasArvore metricas = super.ativarMetricas();
+        copia = new CopiaDeCaminho<>(comparator, metricas);
+        return metricas;
+    }
+
+    @Override
+    public void desativarMetricas() {
+        super.desativarMetricas();
+        copia = new CopiaDeCaminho<>(comparator);
+    }
+
+    /**
+     * Troca a raiz desta árvore e a torna visível para snapshot().
+     */
+    private void publicar(NodeTree<T> versao) {
+        root = versao;
+        publicada = versao;
+    }
+
+    /**
+     * Copia os nós da versão atual antes de uma operação que altera nós no lugar,
+     * para que snapshots que compartilham esses nós não sejam afetados.
+     */
+    private void desacoplar() {
+        root = OperacoesConjunto.copiar(root);
+    }
+}
@@ -0,0 +1,491 @@
+package lib;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Implementação de uma Árvore Rubro-Negra (Red-Black).
+ *
+ * Como a BinTreeAVL, herda a inserção e a remoção iterativas da BinTree e corrige a
+ * árvore no ponto de extensão reajustar, chamado para cada nó do caminho de baixo
+ * para cima. As regras são mais frouxas que as da AVL (a altura pode chegar a
+ * 2 log2(n + 1)), então a maior parte das correções é só troca de cores: uma inserção
+ * faz no máximo duas rotações e uma remoção no máximo três.
+ *
+ * Os elementos, o comparator e o tratamento de duplicatas são os mesmos da BinTree.
+ * Em join e nas operações de conjunto a outra árvore também deve ser uma BinTreeRB
+ * (senão é lançada IllegalArgumentException).
+ *
+ * @param <T> tipo dos elementos armazenados na árvore
+ */
+public class BinTreeRB<T> extends BinTree<T> {
+
+    // Déficit de nós pretos deixado por uma remoção, corrigido na subida por reajustar
+    private boolean deficit;                 // há uma subárvore com um preto a menos
+    private NodeTree<T> paiDeficit;          // primeiro nó a corrigir: pai do nó retirado
+    private NodeTree<T> filhoDeficit;        // nos seguintes: a subárvore com o déficit
+
+    /**
+     * Construtor da árvore rubro-negra.
+     *
+     * @param comparator objeto Comparator responsável por definir a ordem dos elementos
+     */
+    public BinTreeRB(Comparator<T> comparator) {
+        super(comparator);
+    }
+
+    @Override
+    public void adicionar(T newValue) {
+        super.adicionar(newValue);
+        pintar(root, false); // a raiz é sempre preta
+    }
+
+    @Override
+    public T remover(T value) {
+        T removed = super.remover(value);
+        deficit = false; // um déficit que chegou à raiz apenas diminui a altura negra da árvore
+        paiDeficit = null;
+        filhoDeficit = null;
+        pintar(root, false);
+        return removed;
+    }
+
+    /**
+     * Adiciona o lote montando com ele, uma única vez, uma subárvore rubro-negra
+     * balanceada e unindo-a no lugar a esta árvore (os nós do lote são consumidos,
+     * sem cópia). Elementos já existentes mantêm o valor desta árvore.
+     */
+    @Override
+    public int adicionarTodos(Collection<? extends T> valores) {
+        int antes = tamanhoNo(root);
+        Object[] lote = ordenarLote(valores);
+        NodeTree<T> novos = construirBalanceada(lote, 0, lote.length - 1);
+        colorir(novos);
+        root = new OperacoesConjunto<>(this).combinar(root, novos, OperacoesConjunto.UNIAO);
+        pintar(root, false);
+        return tamanhoNo(root) - antes;
+    }
+
+    @Override
+    public BinTree<T> split(T chave) {
+        BinTree<T> maiores = super.split(chave);
+        pintar(root, false);
+        pintar(maiores.root, false);
+        return maiores;
+    }
+
+    /**
+     * Monta a árvore balanceada da BinTree e a colore: todos os nós são pretos,
+     * menos os do último nível, que são vermelhos. Como a construção pelo elemento do
+     * meio deixa todos os caminhos até um filho nulo com o mesmo número de nós fora
+     * do último nível, a altura negra é a mesma em toda a árvore.
+     */
+    @Override
+    protected void construirBalanceada(Object[] values, int n) {
+        super.construirBalanceada(values, n);
+        colorir(root);
+    }
+
+    /**
+     * Colore uma subárvore montada por construirBalanceada (ver acima).
+     */
+    private void colorir(NodeTree<T> raiz) {
+        if (raiz == null) return;
+        int ultimoNivel = raiz.getHeight();
+        ArrayDeque<NodeTree<T>> nivel = new ArrayDeque<>();
+        nivel.add(raiz);
+        for (int profundidade = 0; !nivel.isEmpty(); profundidade++) {
+            for (int i = nivel.size(); i > 0; i--) {
+                NodeTree<T> node = nivel.poll();
+                pintar(node, profundidade == ultimoNivel && profundidade > 0);
+                if (node.getChildLeft() != null) nivel.add(node.getChildLeft());
+                if (node.getChildRight() != null) nivel.add(node.getChildRight());
+            }
+        }
+    }
+
+    /**
+     * O juntar da rubro-negra usa as cores dos nós, então join e as operações de
+     * conjunto só aceitam outra BinTreeRB.
+     */
+    @Override
+    protected void verificarOutra(BinTree<T> outra) {
+        if (!(outra instanceof BinTreeRB)) {
+            throw new IllegalArgumentException("Join e operações de conjunto exigem outra BinTreeRB: "
+                    + outra.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * @return nova BinTreeRB vazia com o mesmo comparator (usada por split)
+     */
+    @Override
+    protected BinTree<T> novaArvore() {
+        return new BinTreeRB<>(comparadorOriginal());
+    }
+
+    /**
+     * @return nó rubro-negro (vermelho) com o valor
+     */
+    @Override
+    protected NodeTree<T> novoNo(T value) {
+        return new NodeTreeRB<>(value);
+    }
+
+    //-----------------------------------------------------------------
+    // Cores e Rotações
+    //-----------------------------------------------------------------
+
+    /**
+     * @return true se o nó existir e for vermelho (nós nulos são pretos)
+     */
+    private boolean vermelho(NodeTree<T> node) {
+        return node != null && ((NodeTreeRB<T>) node).vermelho;
+    }
+
+    private void pintar(NodeTree<T> node, boolean vermelho) {
+        if (node != null) {
+            ((NodeTreeRB<T>) node).vermelho = vermelho;
+        }
+    }
+
+    /**
+     * Quantidade de nós pretos de node até um filho nulo (igual por qualquer caminho).
+     */
+    private int alturaNegra(NodeTree<T> node) {
+        int altura = 0;
+        for (; node != null; node = node.getChildLeft()) {
+            if (!vermelho(node)) altura++;
+        }
+        return altura;
+    }
+
+    /**
+     * Rotação simples à direita; as cores são ajustadas e a rotação é contada nas
+     * métricas (contarRotacao) por quem chama: uma rotação simples à direita é o caso
+     * LL, à esquerda o RR, e as duplas LR e RL.
+     *
+     * @param y raiz da subárvore a ser rotacionada
+     * @return a nova raiz da subárvore
+     */
+    private NodeTree<T> rotacaoDireita(NodeTree<T> y) {
+        NodeTree<T> x = y.getChildLeft();
+        y.setChildLeft(x.getChildRight());
+        x.setChildRight(y);
+        atualizarNo(y);
+        atualizarNo(x);
+        return x;
+    }
+
+    /**
+     * Rotação simples à esquerda; as cores são ajustadas e a rotação é contada por
+     * quem chama.
+     *
+     * @param x raiz da subárvore a ser rotacionada
+     * @return a nova raiz da subárvore
+     */
+    private NodeTree<T> rotacaoEsquerda(NodeTree<T> x) {
+        NodeTree<T> y = x.getChildRight();
+        x.setChildRight(y.getChildLeft());
+        y.setChildLeft(x);
+        atualizarNo(x);
+        atualizarNo(y);
+        return y;
+    }
+
+    //-----------------------------------------------------------------
+    // Correção após Inserção e Remoção
+    //-----------------------------------------------------------------
+
+    /**
+     * Chamado pela BinTree para cada nó do caminho, de baixo para cima, após uma
+     * inserção ou remoção. Atualiza altura e tamanho do nó, corrige o déficit de
+     * pretos deixado por uma remoção e desfaz um vermelho com filho vermelho logo
+     * abaixo deste nó.
+     *
+     * @param node nó cujos filhos podem ter mudado
+     * @return a raiz da subárvore após a correção
+     */
+    @Override
+    protected NodeTree<T> reajustar(NodeTree<T> node) {
+        atualizarNo(node);
+        if (deficit) {
+            // no pai do nó retirado o lado com déficit é o que ficou nulo
+            boolean esquerda = paiDeficit != null
+                    ? node.getChildLeft() == null
+                    : node.getChildLeft() == filhoDeficit;
+            paiDeficit = null;
+            return esquerda ? corrigirDeficitEsquerda(node) : corrigirDeficitDireita(node);
+        }
+        return corrigirVermelhos(node);
+    }
+
+    /**
+     * Registra o déficit quando um nó preto sai da árvore. Se o filho que ocupou o
+     * lugar dele for vermelho, basta pintá-lo de preto.
+     */
+    @Override
+    protected void noRetirado(NodeTree<T> node, NodeTree<T> parent, NodeTree<T> child) {
+        if (vermelho(node)) return;
+        if (vermelho(child)) {
+            pintar(child, false);
+        } else if (parent != null) {
+            deficit = true;
+            paiDeficit = parent;
+        }
+    }
+
+    /**
+     * Se um filho vermelho de g tiver um filho vermelho, troca as cores (tio
+     * vermelho) ou rotaciona (tio preto) para desfazer a sequência.
+     */
+    private NodeTree<T> corrigirVermelhos(NodeTree<T> g) {
+        NodeTree<T> left = g.getChildLeft();
+        NodeTree<T> right = g.getChildRight();
+        if (vermelho(left) && (vermelho(left.getChildLeft()) || vermelho(left.getChildRight()))) {
+            if (vermelho(right)) {
+                // tio vermelho: o problema sobe dois níveis
+                pintar(left, false);
+                pintar(right, false);
+                pintar(g, true);
+                return g;
+            }
+            if (vermelho(left.getChildRight())) {
+                // Caso Esquerda-Direita (LR)
+                g.setChildLeft(rotacaoEsquerda(left));
+                contarRotacao(MetricasArvore.LR);
+            } else {
+                // Caso Esquerda-Esquerda (LL)
+                contarRotacao(MetricasArvore.LL);
+            }
+            NodeTree<T> x = rotacaoDireita(g);
+            pintar(x, false);
+            pintar(g, true);
+            return x;
+        }
+        if (vermelho(right) && (vermelho(right.getChildLeft()) || vermelho(right.getChildRight()))) {
+            if (vermelho(left)) {
+                pintar(left, false);
+                pintar(right, false);
+                pintar(g, true);
+                return g;
+            }
+            if (vermelho(right.getChildLeft())) {
+                // Caso Direita-Esquerda (RL)
+                g.setChildRight(rotacaoDireita(right));
+                contarRotacao(MetricasArvore.RL);
+            } else {
+                // Caso Direita-Direita (RR)
+                contarRotacao(MetricasArvore.RR);
+            }
+            NodeTree<T> x = rotacaoEsquerda(g);
+            pintar(x, false);
+            pintar(g, true);
+            return x;
+        }
+        return g;
+    }
+
+    /**
+     * A subárvore esquerda de p tem um preto a menos que a direita. Corrige com
+     * rotações e trocas de cor; se não for possível resolver em p, o déficit passa
+     * para a subárvore de p (filhoDeficit).
+     *
+     * @return a raiz da subárvore após a correção
+     */
+    private NodeTree<T> corrigirDeficitEsquerda(NodeTree<T> p) {
+        NodeTree<T> s = p.getChildRight(); // irmão: nunca é nulo, pois tem ao menos um preto
+        if (vermelho(s)) {
+            // irmão vermelho: rotaciona para que o irmão passe a ser preto e corrige em p (agora vermelho)
+            pintar(s, false);
+            pintar(p, true);
+            NodeTree<T> x = rotacaoEsquerda(p);
+            contarRotacao(MetricasArvore.RR);
+            x.setChildLeft(corrigirDeficitEsquerda(p));
+            atualizarNo(x);
+            deficit = false;
+            return x;
+        }
+        if (!vermelho(s.getChildLeft()) && !vermelho(s.getChildRight())) {
+            // irmão preto com filhos pretos: tira um preto do irmão
+            pintar(s, true);
+            if (vermelho(p)) {
+                pintar(p, false);
+                deficit = false;
+            } else {
+                filhoDeficit = p; // p inteiro ficou com um preto a menos
+            }
+            return p;
+        }
+        if (!vermelho(s.getChildRight())) {
+            pintar(s.getChildLeft(), false);
+            pintar(s, true);
+            p.setChildRight(rotacaoDireita(s));
+            s = p.getChildRight();
+            contarRotacao(MetricasArvore.RL);
+        } else {
+            contarRotacao(MetricasArvore.RR);
+        }
+        pintar(s, vermelho(p));
+        pintar(p, false);
+        pintar(s.getChildRight(), false);
+        deficit = false;
+        return rotacaoEsquerda(p);
+    }
+
+    /**
+     * Simétrico de corrigirDeficitEsquerda.
+     */
+    private NodeTree<T> corrigirDeficitDireita(NodeTree<T> p) {
+        NodeTree<T> s = p.getChildLeft();
+        if (vermelho(s)) {
+            pintar(s, false);
+            pintar(p, true);
+            NodeTree<T> x = rotacaoDireita(p);
+            contarRotacao(MetricasArvore.LL);
+            x.setChildRight(corrigirDeficitDireita(p));
+            atualizarNo(x);
+            deficit = false;
+            return x;
+        }
+        if (!vermelho(s.getChildLeft()) && !vermelho(s.getChildRight())) {
+            pintar(s, true);
+            if (vermelho(p)) {
+                pintar(p, false);
+                deficit = false;
+            } else {
+                filhoDeficit = p;
+            }
+            return p;
+        }
+        if (!vermelho(s.getChildLeft())) {
+            pintar(s.getChildRight(), false);
+            pintar(s, true);
+            p.setChildLeft(rotacaoEsquerda(s));
+            s = p.getChildLeft();
+            contarRotacao(MetricasArvore.LR);
+        } else {
+            contarRotacao(MetricasArvore.LL);
+        }
+        pintar(s, vermelho(p));
+        pintar(p, false);
+        pintar(s.getChildLeft(), false);
+        deficit = false;
+        return rotacaoDireita(p);
+    }
+
+    //-----------------------------------------------------------------
+    // Junção (usada por split, join, lotes e operações de conjunto)
+    //-----------------------------------------------------------------
+
+    /**
+     * Junta duas subárvores rubro-negras com um nó do meio: desce pela borda da
+     * subárvore de maior altura negra até um nó preto com a altura negra da outra,
+     * pendura ali o nó do meio (vermelho) e desfaz vermelhos seguidos na volta.
+     * A raiz devolvida é sempre preta.
+     * (Sobrescreve a junção simples da classe BinTree.)
+     *
+     * @param left   subárvore com os elementos menores
+     * @param middle nó do meio
+     * @param right  subárvore com os elementos maiores
+     * @return a raiz da subárvore rubro-negra resultante
+     */
+    @Override
+    protected NodeTree<T> juntar(NodeTree<T> left, NodeTree<T> middle, NodeTree<T> right) {
+        // as subárvores recebidas não estão mais ligadas a nada: a raiz pode virar preta
+        pintar(left, false);
+        pintar(right, false);
+        int bl = alturaNegra(left);
+        int br = alturaNegra(right);
+        NodeTree<T> result;
+        if (bl > br) {
+            result = juntarDireita(left, bl, middle, right, br);
+        } else if (br > bl) {
+            result = juntarEsquerda(left, bl, middle, right, br);
+        } else {
+            middle.setChildLeft(left);
+            middle.setChildRight(right);
+            atualizarNo(middle);
+            result = middle;
+        }
+        pintar(result, false);
+        return result;
+    }
+
+    /**
+     * Junta duas subárvores sem um nó do meio: retira o maior nó de 'left' (com
+     * junções, sem precisar do estado de remoção) e o usa como nó do meio.
+     */
+    @Override
+    protected NodeTree<T> juntar(NodeTree<T> left, NodeTree<T> right) {
+        if (left == null) {
+            pintar(right, false);
+            return right;
+        }
+        if (right == null) {
+            pintar(left, false);
+            return left;
+        }
+        NodeTree<T> max = left;
+        while (max.getChildRight() != null) {
+            max = max.getChildRight();
+        }
+        return juntar(removerUltimo(left), max, right);
+    }
+
+    /**
+     * @return a subárvore de node sem o seu maior nó
+     */
+    private NodeTree<T> removerUltimo(NodeTree<T> node) {
+        if (node.getChildRight() == null) {
+            return node.getChildLeft();
+        }
+        NodeTree<T> left = node.getChildLeft();
+        return juntar(left, node, removerUltimo(node.getChildRight()));
+    }
+
+    /**
+     * Desce pela borda direita de t (altura negra bt) até a altura negra br.
+     */
+    private NodeTree<T> juntarDireita(NodeTree<T> t, int bt, NodeTree<T> middle, NodeTree<T> right, int br) {
+        if (t == null || (!vermelho(t) && bt == br)) {
+            middle.setChildLeft(t);
+            middle.setChildRight(right);
+            pintar(middle, true);
+            atualizarNo(middle);
+            return middle;
+        }
+        t.setChildRight(juntarDireita(t.getChildRight(), vermelho(t) ? bt : bt - 1, middle, right, br));
+        atualizarNo(t);
+        NodeTree<T> r = t.getChildRight();
+        if (!vermelho(t) && vermelho(r) && vermelho(r.getChildRight())) {
+            pintar(r.getChildRight(), false);
+            contarRotacao(MetricasArvore.RR);
+            return rotacaoEsquerda(t);
+        }
+        return t;
+    }
+
+    /**
+     * Desce pela borda esquerda de t (altura negra bt) até a altura negra bl.
+     */
+    private NodeTree<T> juntarEsquerda(NodeTree<T> left, int bl, NodeTree<T> middle, NodeTree<T> t, int bt) {
+        if (t == null || (!vermelho(t) && bt == bl)) {
+            middle.setChildLeft(left);
+            middle.setChildRight(t);
+            pintar(middle, true);
+            atualizarNo(middle);
+            return middle;
+        }
+        t.setChildLeft(juntarEsquerda(left, bl, middle, t.getChildLeft(), vermelho(t) ? bt : bt - 1));
+        atualizarNo(t);
+        NodeTree<T> l = t.getChildLeft();
+        if (!vermelho(t) && vermelho(l) && vermelho(l.getChildLeft())) {
+            pintar(l.getChildLeft(), false);
+            contarRotacao(MetricasArvore.LL);
+            return rotacaoDireita(t);
+        }
+        return t;
+    }
+}
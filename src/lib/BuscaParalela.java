@@ -0,0 +1,148 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Varredura paralela (fork-join) de uma árvore por um comparator que não é o que
+ * a ordena. Usada por BinTree.pesquisarParalelo e BinTree.pesquisarTodos.
+ *
+ * Cada tarefa desce pela árvore: visita o nó atual, dispara uma nova tarefa para o
+ * filho menor (se ele tiver ao menos LIMIAR nós) e continua no laço pelo filho maior.
+ * Subárvores com menos de LIMIAR nós são varridas sequencialmente com uma pilha
+ * explícita. O laço (em vez da recursão) mantém a pilha de cada thread pequena
+ * mesmo em árvores degeneradas.
+ *
+ * @param <T> tipo dos elementos da árvore
+ */
+final class BuscaParalela<T> {
+    static final int LIMIAR = 4096;                // tamanho mínimo de subárvore para dividir
+    private static final int INTERVALO_CANCELAMENTO = 1024;  // nós visitados entre verificações
+
+    private final T value;
+    private final Comparator<T> comp;
+    private final boolean todos;                    // true: coleta todos; false: para no primeiro
+    private final AtomicReference<T> primeiro = new AtomicReference<>();
+
+    private BuscaParalela(T value, Comparator<T> comp, boolean todos) {
+        this.value = value;
+        this.comp = comp;
+        this.todos = todos;
+    }
+
+    /**
+     * Retorna algum elemento igual a value segundo comp, cancelando as demais tarefas
+     * assim que um for encontrado.
+     */
+    static <T> T pesquisar(NodeTree<T> root, T value, Comparator<T> comp) {
+        if (root == null) return null;
+        BuscaParalela<T> busca = new BuscaParalela<>(value, comp, false);
+        ForkJoinPool.commonPool().invoke(busca.new Tarefa(root));
+        return busca.primeiro.get();
+    }
+
+    /**
+     * Retorna todos os elementos iguais a value segundo comp, na ordem da árvore.
+     */
+    static <T> List<T> pesquisarTodos(NodeTree<T> root, T value, Comparator<T> comp, Comparator<T> ordem) {
+        if (root == null) return new ArrayList<>();
+        BuscaParalela<T> busca = new BuscaParalela<>(value, comp, true);
+        BuscaParalela<T>.Tarefa tarefa = busca.new Tarefa(root);
+        ForkJoinPool.commonPool().invoke(tarefa);
+        // as tarefas terminam em qualquer ordem: reordena pelo critério da árvore
+        tarefa.encontrados.sort(ordem);
+        return tarefa.encontrados;
+    }
+
+    private boolean cancelada() {
+        return !todos && primeiro.get() != null;
+    }
+
+    /**
+     * Registra um elemento encontrado. Retorna true se a busca deve parar.
+     */
+    private boolean encontrou(T found, List<T> encontrados) {
+        if (todos) {
+            encontrados.add(found);
+            return false;
+        }
+        primeiro.compareAndSet(null, found);
+        return true;
+    }
+
+    private class Tarefa extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final NodeTree<T> inicio;
+        private final List<T> encontrados = new ArrayList<>();
+
+        Tarefa(NodeTree<T> inicio) {
+            this.inicio = inicio;
+        }
+
+        @Override
+        protected void compute() {
+            List<Tarefa> disparadas = new ArrayList<>();
+            NodeTree<T> node = inicio;
+
+            while (node != null && node.getSize() >= LIMIAR && !cancelada()) {
+                if (comp.compare(value, node.getValue()) == 0 && encontrou(node.getValue(), encontrados)) {
+                    break;
+                }
+                NodeTree<T> left = node.getChildLeft();
+                NodeTree<T> right = node.getChildRight();
+                NodeTree<T> menor = tamanho(left) < tamanho(right) ? left : right;
+                NodeTree<T> maior = menor == left ? right : left;
+                if (tamanho(menor) >= LIMIAR) {
+                    Tarefa t = new Tarefa(menor);
+                    t.fork();
+                    disparadas.add(t);
+                } else if (varrer(menor)) {
+                    node = null;
+                    break;
+                }
+                node = maior;
+            }
+            if (node != null && node.getSize() < LIMIAR) {
+                varrer(node);
+            }
+
+            for (Tarefa t : disparadas) {
+                t.join();
+                encontrados.addAll(t.encontrados);
+            }
+        }
+
+        /**
+         * Varre sequencialmente uma subárvore pequena. Retorna true se a busca deve parar.
+         */
+        private boolean varrer(NodeTree<T> sub) {
+            if (sub == null) return false;
+            @SuppressWarnings("unchecked")
+            NodeTree<T>[] stack = (NodeTree<T>[]) new NodeTree<?>[sub.getHeight() + 1];
+            int top = 0;
+            int visitados = 0;
+            stack[top++] = sub;
+            while (top > 0) {
+                NodeTree<T> node = stack[--top];
+                if (comp.compare(value, node.getValue()) == 0 && encontrou(node.getValue(), encontrados)) {
+                    return true;
+                }
+                if (++visitados % INTERVALO_CANCELAMENTO == 0 && cancelada()) {
+                    return true;
+                }
+                if (node.getChildRight() != null) stack[top++] = node.getChildRight();
+                if (node.getChildLeft() != null) stack[top++] = node.getChildLeft();
+            }
+            return false;
+        }
+
+        private int tamanho(NodeTree<T> node) {
+            return node == null ? 0 : node.getSize();
+        }
+    }
+}
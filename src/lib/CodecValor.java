@@ -0,0 +1,66 @@
+package lib;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converte os valores de uma árvore para bytes e de volta, para o snapshot binário
+ * (SnapshotArvore).
+ *
+ * escrever grava o valor a partir da posição atual do buffer e pode lançar
+ * BufferOverflowException quando não houver espaço: o snapshot esvazia o buffer (ou
+ * aumenta, se o valor não couber nem no buffer vazio) e chama escrever de novo.
+ * ler recebe um buffer cujo limite é o fim do registro e deve consumir todos os
+ * bytes dele.
+ *
+ * @param <T> tipo dos valores
+ */
+public interface CodecValor<T> {
+
+    /**
+     * Grava o valor no buffer, a partir da posição atual.
+     */
+    void escrever(T valor, ByteBuffer destino);
+
+    /**
+     * Lê um valor gravado por escrever.
+     */
+    T ler(ByteBuffer origem);
+
+    /**
+     * Grava um texto em UTF-8 precedido do tamanho em bytes (-1 para null).
+     */
+    static void escreverTexto(String texto, ByteBuffer destino) {
+        if (texto == null) {
+            destino.putInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.putInt(bytes.length);
+        destino.put(bytes);
+    }
+
+    /**
+     * Lê um texto gravado por escreverTexto.
+     *
+     * @throws BufferUnderflowException se o tamanho gravado passar do fim da origem
+     */
+    static String lerTexto(ByteBuffer origem) {
+        int tamanho = origem.getInt();
+        if (tamanho < 0) return null;
+        if (tamanho > origem.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String texto;
+        if (origem.hasArray()) {
+            texto = new String(origem.array(), origem.arrayOffset() + origem.position(), tamanho, StandardCharsets.UTF_8);
+            origem.position(origem.position() + tamanho);
+        } else {
+            byte[] bytes = new byte[tamanho];
+            origem.get(bytes);
+            texto = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return texto;
+    }
+}
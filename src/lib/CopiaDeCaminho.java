@@ -0,0 +1,153 @@
+package lib;
+
+import java.util.Comparator;
+
+/**
+ * Inserção e remoção AVL por cópia de caminho (path copying).
+ *
+ * Nenhum nó existente é alterado: as funções criam cópias dos nós do caminho da raiz
+ * até o ponto modificado (e dos nós envolvidos em rotações) e devolvem uma nova raiz
+ * que compartilha com a antiga todas as subárvores não tocadas. Quem ainda tiver a
+ * raiz antiga continua enxergando a árvore exatamente como ela era, o que permite
+ * leituras sem bloqueio e instantâneos (snapshots) em O(1).
+ *
+ * Os nós só são publicados depois de completamente montados; publicar a nova raiz por
+ * uma escrita volátil (ou AtomicReference) garante que outras threads vejam os campos
+ * dos nós corretamente.
+ *
+ * @param <T> tipo dos elementos da árvore
+ */
+final class CopiaDeCaminho<T> {
+    private final Comparator<T> comparator;
+    private final MetricasArvore metricas;   // onde as rotações são contadas (null: não conta)
+
+    CopiaDeCaminho(Comparator<T> comparator) {
+        this(comparator, null);
+    }
+
+    /**
+     * @param metricas métricas em que as rotações feitas por balancear são contadas,
+     *                 ou null para não contar
+     */
+    CopiaDeCaminho(Comparator<T> comparator, MetricasArvore metricas) {
+        this.comparator = comparator;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Resultado de uma remoção: a nova raiz e o valor removido (null se não existia).
+     */
+    static class Remocao<T> {
+        NodeTree<T> raiz;
+        T removido;
+    }
+
+    /**
+     * @return a raiz da árvore com value inserido, ou a própria node se value já existia
+     */
+    NodeTree<T> inserir(NodeTree<T> node, T value) {
+        if (node == null) {
+            return new NodeTree<>(value);
+        }
+        int comp = comparator.compare(value, node.getValue());
+        if (comp < 0) {
+            NodeTree<T> left = inserir(node.getChildLeft(), value);
+            return left == node.getChildLeft() ? node : balancear(left, node.getValue(), node.getChildRight());
+        } else if (comp > 0) {
+            NodeTree<T> right = inserir(node.getChildRight(), value);
+            return right == node.getChildRight() ? node : balancear(node.getChildLeft(), node.getValue(), right);
+        }
+        return node; // duplicata: nada muda
+    }
+
+    /**
+     * Remove value da árvore de node. Se value não existir, r.raiz é a própria node.
+     */
+    Remocao<T> remover(NodeTree<T> node, T value) {
+        Remocao<T> r = new Remocao<>();
+        r.raiz = remover(node, value, r);
+        return r;
+    }
+
+    private NodeTree<T> remover(NodeTree<T> node, T value, Remocao<T> r) {
+        if (node == null) return null;
+        int comp = comparator.compare(value, node.getValue());
+        if (comp < 0) {
+            NodeTree<T> left = remover(node.getChildLeft(), value, r);
+            return left == node.getChildLeft() ? node : balancear(left, node.getValue(), node.getChildRight());
+        } else if (comp > 0) {
+            NodeTree<T> right = remover(node.getChildRight(), value, r);
+            return right == node.getChildRight() ? node : balancear(node.getChildLeft(), node.getValue(), right);
+        }
+        r.removido = node.getValue();
+        if (node.getChildLeft() == null) return node.getChildRight();
+        if (node.getChildRight() == null) return node.getChildLeft();
+        // dois filhos: o sucessor ocupa o lugar do nó (em uma cópia)
+        NodeTree<T> succ = node.getChildRight();
+        while (succ.getChildLeft() != null) {
+            succ = succ.getChildLeft();
+        }
+        return balancear(node.getChildLeft(), succ.getValue(), removerMinimo(node.getChildRight()));
+    }
+
+    private NodeTree<T> removerMinimo(NodeTree<T> node) {
+        if (node.getChildLeft() == null) return node.getChildRight();
+        return balancear(removerMinimo(node.getChildLeft()), node.getValue(), node.getChildRight());
+    }
+
+    /**
+     * Cria um nó novo com os filhos dados, aplicando a rotação AVL necessária (também
+     * com nós novos) se as alturas dos filhos diferirem em mais de um.
+     */
+    NodeTree<T> balancear(NodeTree<T> left, T value, NodeTree<T> right) {
+        int hl = altura(left);
+        int hr = altura(right);
+        if (hl > hr + 1) {
+            if (altura(left.getChildLeft()) >= altura(left.getChildRight())) {
+                // Caso Esquerda-Esquerda (LL)
+                contarRotacao(MetricasArvore.LL);
+                return no(left.getChildLeft(), left.getValue(), no(left.getChildRight(), value, right));
+            }
+            // Caso Esquerda-Direita (LR)
+            contarRotacao(MetricasArvore.LR);
+            NodeTree<T> lr = left.getChildRight();
+            return no(no(left.getChildLeft(), left.getValue(), lr.getChildLeft()), lr.getValue(),
+                    no(lr.getChildRight(), value, right));
+        }
+        if (hr > hl + 1) {
+            if (altura(right.getChildRight()) >= altura(right.getChildLeft())) {
+                // Caso Direita-Direita (RR)
+                contarRotacao(MetricasArvore.RR);
+                return no(no(left, value, right.getChildLeft()), right.getValue(), right.getChildRight());
+            }
+            // Caso Direita-Esquerda (RL)
+            contarRotacao(MetricasArvore.RL);
+            NodeTree<T> rl = right.getChildLeft();
+            return no(no(left, value, rl.getChildLeft()), rl.getValue(),
+                    no(rl.getChildRight(), right.getValue(), right.getChildRight()));
+        }
+        return no(left, value, right);
+    }
+
+    private void contarRotacao(int caso) {
+        if (metricas != null) {
+            metricas.registrarRotacao(caso);
+        }
+    }
+
+    /**
+     * Cria um nó novo com altura e tamanho calculados a partir dos filhos.
+     */
+    static <T> NodeTree<T> no(NodeTree<T> left, T value, NodeTree<T> right) {
+        NodeTree<T> node = new NodeTree<>(value);
+        node.setChildLeft(left);
+        node.setChildRight(right);
+        node.setHeight(1 + Math.max(altura(left), altura(right)));
+        node.setSize(1 + (left == null ? 0 : left.getSize()) + (right == null ? 0 : right.getSize()));
+        return node;
+    }
+
+    private static int altura(NodeTree<?> node) {
+        return node == null ? -1 : node.getHeight();
+    }
+}
@@ -0,0 +1,120 @@
+package lib;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de valores inteiros não negativos (latências em ns, profundidades) com
+ * faixas logarítmicas, no estilo do HdrHistogram: valores de 0 a 31 têm uma faixa
+ * cada; acima disso cada potência de 2 é dividida em 16 faixas iguais, então o erro
+ * relativo de um percentil é no máximo 1/16 (6,25%). Registrar um valor custa O(1)
+ * e o histograma ocupa um vetor fixo de 960 contadores, seja qual for o maior valor.
+ *
+ * Não é thread-safe.
+ */
+public final class HistogramaLogaritmico {
+    private static final int EXATOS = 32;            // valores com faixa própria
+    private static final int BITS_SUBFAIXA = 4;      // 16 faixas por potência de 2
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int FAIXAS = EXATOS + (63 - 5) * SUBFAIXAS;
+
+    private final long[] contagens;
+    private long total;
+    private long soma;
+    private long maximo;
+
+    public HistogramaLogaritmico() {
+        contagens = new long[FAIXAS];
+    }
+
+    private HistogramaLogaritmico(HistogramaLogaritmico outro) {
+        contagens = outro.contagens.clone();
+        total = outro.total;
+        soma = outro.soma;
+        maximo = outro.maximo;
+    }
+
+    /**
+     * Registra um valor (valores negativos contam como 0).
+     */
+    public void registrar(long valor) {
+        if (valor < 0) valor = 0;
+        contagens[faixa(valor)]++;
+        total++;
+        soma += valor;
+        if (valor > maximo) maximo = valor;
+    }
+
+    private static int faixa(long valor) {
+        if (valor < EXATOS) return (int) valor;
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);          // >= 5
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        int sub = (int) (valor >>> deslocamento) - SUBFAIXAS;           // 0..15
+        return EXATOS + (expoente - 5) * SUBFAIXAS + sub;
+    }
+
+    /**
+     * @return o maior valor que cai na mesma faixa de i
+     */
+    private static long limiteSuperior(int i) {
+        if (i < EXATOS) return i;
+        int expoente = (i - EXATOS) / SUBFAIXAS + 5;
+        long m = (i - EXATOS) % SUBFAIXAS + SUBFAIXAS;
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        return ((m + 1) << deslocamento) - 1;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    public double getMedia() {
+        return total == 0 ? 0 : (double) soma / total;
+    }
+
+    /**
+     * Retorna o percentil p (entre 0 e 100): o limite superior da faixa em que está
+     * o valor de posição p% (nunca maior que o máximo registrado).
+     *
+     * @param p percentil desejado, por exemplo 99.9
+     * @return o valor do percentil, ou 0 se o histograma estiver vazio
+     */
+    public long percentil(double p) {
+        if (total == 0) return 0;
+        long posicao = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= posicao) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * @return cópia independente do histograma
+     */
+    public HistogramaLogaritmico copia() {
+        return new HistogramaLogaritmico(this);
+    }
+
+    /**
+     * Zera todas as contagens.
+     */
+    public void zerar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        soma = 0;
+        maximo = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d média=%.1f p50=%d p90=%d p99=%d p99.9=%d máx=%d",
+                total, getMedia(), percentil(50), percentil(90), percentil(99), percentil(99.9), maximo);
+    }
+}
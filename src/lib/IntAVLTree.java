@@ -0,0 +1,353 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Árvore AVL com chaves int guardadas em vetores paralelos.
+ *
+ * Cada nó é uma posição (índice) nos vetores chaves, esquerda, direita e alturas, e o
+ * elemento fica em valores na mesma posição. A chave de cada elemento é extraída uma
+ * única vez, na inserção, por uma ToIntFunction (por exemplo Aluno::getMatricula);
+ * as buscas comparam ints diretamente, sem chamar Comparator nem acessar os
+ * elementos. Não há um objeto por nó: uma entrada ocupa 17 bytes nos vetores
+ * (4 da chave, 4 + 4 dos filhos, 1 da altura e 4 da referência ao valor) contra os
+ * 32 bytes de um NodeTree, mais a folga dos vetores, que dobram de tamanho quando
+ * enchem.
+ *
+ * A posição 0 é o nó nulo (altura -1). Posições liberadas por remover formam uma
+ * lista encadeada pelo vetor esquerda e são reaproveitadas pelas inserções.
+ *
+ * Duas chaves iguais são duplicatas, como na BinTree: a segunda inserção é ignorada.
+ *
+ * @param <V> tipo dos elementos armazenados na árvore
+ */
+public class IntAVLTree<V> implements BinTreeInterface<V>, Iterable<V> {
+    private static final int NULO = 0;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private final ToIntFunction<V> chave;
+    private int[] chaves;
+    private int[] esquerda;
+    private int[] direita;
+    private byte[] alturas;          // a altura de uma AVL com 2^31 nós cabe em um byte
+    private Object[] valores;
+    private int raiz = NULO;
+    private int tamanho;
+    private int usados = 1;          // posições já usadas alguma vez (a 0 é o nó nulo)
+    private int livre = NULO;        // primeira posição liberada
+
+    /**
+     * @param chave função que extrai a chave int de um elemento
+     */
+    public IntAVLTree(ToIntFunction<V> chave) {
+        this(chave, CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * @param chave      função que extrai a chave int de um elemento
+     * @param capacidade quantidade de elementos para a qual os vetores já são alocados
+     */
+    public IntAVLTree(ToIntFunction<V> chave, int capacidade) {
+        this.chave = chave;
+        int n = Math.max(capacidade, 1) + 1;
+        chaves = new int[n];
+        esquerda = new int[n];
+        direita = new int[n];
+        alturas = new byte[n];
+        valores = new Object[n];
+        alturas[NULO] = -1;
+    }
+
+    @Override
+    public void adicionar(V novoValor) {
+        raiz = inserir(raiz, chave.applyAsInt(novoValor), novoValor);
+    }
+
+    @Override
+    public V pesquisar(V valor) {
+        return pesquisar(chave.applyAsInt(valor));
+    }
+
+    /**
+     * Pesquisa um elemento diretamente pela chave.
+     *
+     * @param k chave do elemento
+     * @return o elemento encontrado ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisar(int k) {
+        int no = raiz;
+        while (no != NULO) {
+            int c = chaves[no];
+            if (k == c) {
+                return (V) valores[no];
+            }
+            no = k < c ? esquerda[no] : direita[no];
+        }
+        return null;
+    }
+
+    /**
+     * Varre o vetor de valores na ordem das posições (sequencial na memória) e
+     * para no primeiro elemento encontrado.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V pesquisar(V valor, Comparator<V> comparador) {
+        for (int i = 1; i < usados; i++) {
+            V v = (V) valores[i];
+            if (v != null && comparador.compare(valor, v) == 0) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public V remover(V valor) {
+        return remover(chave.applyAsInt(valor));
+    }
+
+    /**
+     * Remove um elemento diretamente pela chave.
+     *
+     * @param k chave do elemento
+     * @return o elemento removido ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int k) {
+        int no = raiz;
+        while (no != NULO && chaves[no] != k) {
+            no = k < chaves[no] ? esquerda[no] : direita[no];
+        }
+        if (no == NULO) return null;
+        V removido = (V) valores[no];
+        raiz = retirar(raiz, k);
+        return removido;
+    }
+
+    @Override
+    public int altura() {
+        return alturas[raiz];
+    }
+
+    @Override
+    public int quantidadeNos() {
+        return tamanho;
+    }
+
+    /**
+     * @return quantidade de posições dos vetores já ocupadas alguma vez; como as
+     *         posições liberadas são reaproveitadas, nunca passa do maior tamanho que
+     *         a árvore já teve
+     */
+    int posicoesUsadas() {
+        return usados - 1;
+    }
+
+    @Override
+    public String caminharEmNivel() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        if (raiz != NULO) {
+            int[] fila = new int[tamanho];
+            int inicio = 0;
+            int fim = 0;
+            fila[fim++] = raiz;
+            while (inicio < fim) {
+                int no = fila[inicio++];
+                sb.append(valores[no].toString()).append(" \n ");
+                if (esquerda[no] != NULO) fila[fim++] = esquerda[no];
+                if (direita[no] != NULO) fila[fim++] = direita[no];
+            }
+            // Remove o último " \n " extra
+            sb.setLength(sb.length() - 3);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public String caminharEmOrdem() {
+        StringBuilder sb = new StringBuilder();
+        for (V v : this) {
+            sb.append(v).append(" ");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Iterador em ordem crescente de chave, com uma pilha de índices. A árvore não
+     * deve ser alterada enquanto o iterador estiver em uso.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private final int[] pilha = new int[alturas[raiz] + 1];
+            private int topo;
+
+            {
+                descer(raiz);
+            }
+
+            private void descer(int no) {
+                while (no != NULO) {
+                    pilha[topo++] = no;
+                    no = esquerda[no];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return topo > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (topo == 0) {
+                    throw new NoSuchElementException();
+                }
+                int no = pilha[--topo];
+                descer(direita[no]);
+                return (V) valores[no];
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------
+    // Inserção e Remoção
+    //-----------------------------------------------------------------
+
+    private int inserir(int no, int k, V valor) {
+        if (no == NULO) {
+            return novoNo(k, valor);
+        }
+        int c = chaves[no];
+        // o filho é guardado antes da atribuição: a inserção pode trocar os vetores (crescer)
+        if (k < c) {
+            int filho = inserir(esquerda[no], k, valor);
+            esquerda[no] = filho;
+        } else if (k > c) {
+            int filho = inserir(direita[no], k, valor);
+            direita[no] = filho;
+        } else {
+            return no; // duplicata
+        }
+        return balancear(no);
+    }
+
+    private int retirar(int no, int k) {
+        int c = chaves[no];
+        if (k < c) {
+            esquerda[no] = retirar(esquerda[no], k);
+        } else if (k > c) {
+            direita[no] = retirar(direita[no], k);
+        } else if (esquerda[no] == NULO || direita[no] == NULO) {
+            int filho = esquerda[no] != NULO ? esquerda[no] : direita[no];
+            liberar(no);
+            return filho;
+        } else {
+            // dois filhos: o sucessor ocupa o lugar do nó
+            int sucessor = direita[no];
+            while (esquerda[sucessor] != NULO) {
+                sucessor = esquerda[sucessor];
+            }
+            chaves[no] = chaves[sucessor];
+            valores[no] = valores[sucessor];
+            direita[no] = retirar(direita[no], chaves[sucessor]);
+        }
+        return balancear(no);
+    }
+
+    private int novoNo(int k, V valor) {
+        int no;
+        if (livre != NULO) {
+            no = livre;
+            livre = esquerda[no];
+        } else {
+            if (usados == chaves.length) {
+                crescer();
+            }
+            no = usados++;
+        }
+        chaves[no] = k;
+        valores[no] = valor;
+        esquerda[no] = NULO;
+        direita[no] = NULO;
+        alturas[no] = 0;
+        tamanho++;
+        return no;
+    }
+
+    private void liberar(int no) {
+        valores[no] = null;
+        esquerda[no] = livre;
+        livre = no;
+        tamanho--;
+    }
+
+    private void crescer() {
+        int n = chaves.length * 2;
+        chaves = Arrays.copyOf(chaves, n);
+        esquerda = Arrays.copyOf(esquerda, n);
+        direita = Arrays.copyOf(direita, n);
+        alturas = Arrays.copyOf(alturas, n);
+        valores = Arrays.copyOf(valores, n);
+    }
+
+    //-----------------------------------------------------------------
+    // Balanceamento
+    //-----------------------------------------------------------------
+
+    private void atualizar(int no) {
+        alturas[no] = (byte) (1 + Math.max(alturas[esquerda[no]], alturas[direita[no]]));
+    }
+
+    private int fator(int no) {
+        return alturas[esquerda[no]] - alturas[direita[no]];
+    }
+
+    private int rotacaoDireita(int y) {
+        int x = esquerda[y];
+        esquerda[y] = direita[x];
+        direita[x] = y;
+        atualizar(y);
+        atualizar(x);
+        return x;
+    }
+
+    private int rotacaoEsquerda(int x) {
+        int y = direita[x];
+        direita[x] = esquerda[y];
+        esquerda[y] = x;
+        atualizar(x);
+        atualizar(y);
+        return y;
+    }
+
+    /**
+     * Atualiza a altura do nó e aplica a rotação necessária (LL, LR, RR ou RL).
+     */
+    private int balancear(int no) {
+        atualizar(no);
+        int balance = fator(no);
+        if (balance > 1) {
+            if (fator(esquerda[no]) < 0) {
+                esquerda[no] = rotacaoEsquerda(esquerda[no]);
+            }
+            return rotacaoDireita(no);
+        }
+        if (balance < -1) {
+            if (fator(direita[no]) > 0) {
+                direita[no] = rotacaoDireita(direita[no]);
+            }
+            return rotacaoEsquerda(no);
+        }
+        return no;
+    }
+}
@@ -0,0 +1,245 @@
+package lib;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de operação de uma BinTree, ativadas com BinTree.ativarMetricas().
+ *
+ * Para adicionar, pesquisar e remover são registrados a quantidade de operações, as
+ * comparações feitas pelo comparator da árvore, a profundidade do caminho de busca
+ * (quantidade de nós visitados na descida, que é o número de comparações daquela
+ * operação) e a latência em nanossegundos. Para as árvores balanceadas também são
+ * contados os rebalanceamentos por caso (LL, RR, LR, RL); LR e RL são rotações
+ * duplas e contam uma vez. Na rubro-negra a rotação simples à direita conta como LL,
+ * à esquerda como RR, e as duplas da inserção e da remoção como LR e RL. Esta é a
+ * única contagem de rotações das árvores: com as métricas desativadas nenhuma
+ * rotação é contada.
+ *
+ * As comparações são contadas por um comparator que envolve o da árvore enquanto as
+ * métricas estão ativas, então comparações feitas por outras operações (lote,
+ * conjuntos, split, iteradores de faixa) também entram no total geral.
+ *
+ * Com as métricas desativadas (o padrão) a árvore usa o comparator original e cada
+ * operação só testa um campo nulo.
+ *
+ * Não é thread-safe, como a própria BinTree. A exceção são as contagens de
+ * comparações e de rotações, feitas com LongAdder: as operações paralelas
+ * (uniaoParalela etc. e pesquisarTodos) comparam e rebalanceiam em várias threads do
+ * ForkJoinPool, e essas contagens continuam exatas.
+ */
+public final class MetricasArvore {
+    public static final int ADICIONAR = 0;
+    public static final int PESQUISAR = 1;
+    public static final int REMOVER = 2;
+
+    public static final int LL = 0;
+    public static final int RR = 1;
+    public static final int LR = 2;
+    public static final int RL = 3;
+
+    private static final String[] NOMES_OPERACOES = {"adicionar", "pesquisar", "remover"};
+    private static final String[] NOMES_ROTACOES = {"LL", "RR", "LR", "RL"};
+
+    private final long[] comparacoes = new long[3];
+    private final HistogramaLogaritmico[] profundidades = new HistogramaLogaritmico[3];
+    private final HistogramaLogaritmico[] latencias = new HistogramaLogaritmico[3];
+    private final LongAdder[] rotacoes = new LongAdder[4];
+    private final Contador<?> contador;
+
+    MetricasArvore(Contador<?> contador) {
+        this.contador = contador;
+        for (int i = 0; i < 3; i++) {
+            profundidades[i] = new HistogramaLogaritmico();
+            latencias[i] = new HistogramaLogaritmico();
+        }
+        for (int i = 0; i < 4; i++) {
+            rotacoes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Comparator que conta as chamadas ao comparator original da árvore. Também é
+     * usado pelas threads das operações paralelas, por isso a contagem é um LongAdder.
+     */
+    static final class Contador<T> implements Comparator<T> {
+        final Comparator<T> original;
+        private final LongAdder comparacoes = new LongAdder();
+
+        Contador(Comparator<T> original) {
+            this.original = original;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            comparacoes.increment();
+            return original.compare(a, b);
+        }
+
+        /**
+         * @return comparações contadas até agora
+         */
+        long comparacoes() {
+            return comparacoes.sum();
+        }
+    }
+
+    void registrar(int operacao, long comparacoesFeitas, long nanos) {
+        comparacoes[operacao] += comparacoesFeitas;
+        profundidades[operacao].registrar(comparacoesFeitas);
+        latencias[operacao].registrar(nanos);
+    }
+
+    void registrarRotacao(int caso) {
+        rotacoes[caso].increment();
+    }
+
+    /**
+     * Zera todas as métricas.
+     */
+    public void zerar() {
+        for (int i = 0; i < 3; i++) {
+            comparacoes[i] = 0;
+            profundidades[i].zerar();
+            latencias[i].zerar();
+        }
+        for (int i = 0; i < 4; i++) {
+            rotacoes[i].reset();
+        }
+        contador.comparacoes.reset();
+    }
+
+    /**
+     * Retorna uma cópia das métricas no momento da chamada, que não muda com as
+     * operações seguintes. Deve ser chamado pela thread que usa a árvore (ou com a
+     * árvore sem uso), como qualquer outro método dela.
+     */
+    public Retrato retrato() {
+        return new Retrato(this);
+    }
+
+    /**
+     * Cópia imutável das métricas em um instante.
+     */
+    public static final class Retrato {
+        private final long comparacoesTotais;
+        private final long[] comparacoes;
+        private final HistogramaLogaritmico[] profundidades = new HistogramaLogaritmico[3];
+        private final HistogramaLogaritmico[] latencias = new HistogramaLogaritmico[3];
+        private final long[] rotacoes;
+
+        private Retrato(MetricasArvore m) {
+            comparacoesTotais = m.contador.comparacoes();
+            comparacoes = m.comparacoes.clone();
+            rotacoes = new long[4];
+            for (int i = 0; i < 4; i++) {
+                rotacoes[i] = m.rotacoes[i].sum();
+            }
+            for (int i = 0; i < 3; i++) {
+                profundidades[i] = m.profundidades[i].copia();
+                latencias[i] = m.latencias[i].copia();
+            }
+        }
+
+        /**
+         * @return todas as comparações feitas pelo comparator da árvore, inclusive
+         *         fora de adicionar, pesquisar e remover
+         */
+        public long getComparacoesTotais() {
+            return comparacoesTotais;
+        }
+
+        /**
+         * @param operacao ADICIONAR, PESQUISAR ou REMOVER
+         */
+        public long getOperacoes(int operacao) {
+            return latencias[operacao].getTotal();
+        }
+
+        /**
+         * @param operacao ADICIONAR, PESQUISAR ou REMOVER
+         */
+        public long getComparacoes(int operacao) {
+            return comparacoes[operacao];
+        }
+
+        /**
+         * @param operacao ADICIONAR, PESQUISAR ou REMOVER
+         * @return histograma da profundidade do caminho de busca (nós visitados)
+         */
+        public HistogramaLogaritmico getProfundidade(int operacao) {
+            return profundidades[operacao].copia();
+        }
+
+        /**
+         * @param operacao ADICIONAR, PESQUISAR ou REMOVER
+         * @return histograma da latência em nanossegundos
+         */
+        public HistogramaLogaritmico getLatencia(int operacao) {
+            return latencias[operacao].copia();
+        }
+
+        /**
+         * @param caso LL, RR, LR ou RL
+         */
+        public long getRotacoes(int caso) {
+            return rotacoes[caso];
+        }
+
+        /**
+         * @return quantidade de rotações simples (LL e RR contam uma, LR e RL contam duas)
+         */
+        public long getRotacoesSimples() {
+            return rotacoes[LL] + rotacoes[RR] + 2 * (rotacoes[LR] + rotacoes[RL]);
+        }
+
+        /**
+         * Exporta o retrato como pares nome/valor (por exemplo "pesquisar.latencia.p99"
+         * ou "rotacoes.LR"), em ordem fixa, para enviar a um sistema de monitoramento.
+         */
+        public Map<String, Number> paraMapa() {
+            Map<String, Number> mapa = new LinkedHashMap<>();
+            mapa.put("comparacoes", comparacoesTotais);
+            for (int op = 0; op < 3; op++) {
+                String nome = NOMES_OPERACOES[op];
+                HistogramaLogaritmico prof = profundidades[op];
+                HistogramaLogaritmico lat = latencias[op];
+                mapa.put(nome + ".operacoes", lat.getTotal());
+                mapa.put(nome + ".comparacoes", comparacoes[op]);
+                mapa.put(nome + ".profundidade.media", prof.getMedia());
+                mapa.put(nome + ".profundidade.p99", prof.percentil(99));
+                mapa.put(nome + ".profundidade.max", prof.getMaximo());
+                mapa.put(nome + ".latencia.media", lat.getMedia());
+                mapa.put(nome + ".latencia.p50", lat.percentil(50));
+                mapa.put(nome + ".latencia.p90", lat.percentil(90));
+                mapa.put(nome + ".latencia.p99", lat.percentil(99));
+                mapa.put(nome + ".latencia.p999", lat.percentil(99.9));
+                mapa.put(nome + ".latencia.max", lat.getMaximo());
+            }
+            for (int caso = 0; caso < 4; caso++) {
+                mapa.put("rotacoes." + NOMES_ROTACOES[caso], rotacoes[caso]);
+            }
+            return mapa;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("comparações=").append(comparacoesTotais).append('\n');
+            for (int op = 0; op < 3; op++) {
+                sb.append(NOMES_OPERACOES[op])
+                  .append(": operações=").append(latencias[op].getTotal())
+                  .append(" comparações=").append(comparacoes[op])
+                  .append("\n  profundidade ").append(profundidades[op])
+                  .append("\n  latência(ns) ").append(latencias[op]).append('\n');
+            }
+            sb.append("rotações:");
+            for (int caso = 0; caso < 4; caso++) {
+                sb.append(' ').append(NOMES_ROTACOES[caso]).append('=').append(rotacoes[caso]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -1,58 +1,114 @@
-package lib;
-
-public class NodeTree<T> {
-    private T value;
-    private NodeTree<T> ChildLeft;
-    private NodeTree<T> ChildRight;
-
-    public NodeTree(T value){
-        this.value = value;
-        this.ChildLeft = null;
-        this.ChildRight = null;
-    }
-
-    /**
-     * @return the valor
-     */
-    public T getValue() {
-        return value;
-    }
-
-    /**
-     * @param value the valor to set
-     */
-    public void setValue(T value) {
-        this.value = value;
-    }
-
-    /**
-     * @return the ChildRight
-     */
-    public NodeTree<T> getChildRight() {
-        return ChildRight;
-    }
-
-    /**
-     * @param ChildRight the ChildRight to set
-     */
-    public void setChildRight(NodeTree<T> ChildRight) {
-        this.ChildRight = ChildRight;
-    }
-
-    /**
-     * @return the filhoEsquerda
-     */
-    public NodeTree<T> getChildLeft() {
-        return ChildLeft;
-    }
-
-    /**
-     * @param ChildLeft the ChildLeft to set
-     */
-    public void setChildLeft(NodeTree<T> ChildLeft) {
-        this.ChildLeft = ChildLeft;
-    }
-
-
-}
-
+package lib;
+
+public class NodeTree<T> {
+    private T value;
+    private NodeTree<T> ChildLeft;
+    private NodeTree<T> ChildRight;
+    private int height;
+    private int size;
+
+    public NodeTree(T value){
+        this.value = value;
+        this.ChildLeft = null;
+        this.ChildRight = null;
+        this.height = 0;
+        this.size = 1;
+    }
+
+    /**
+     * @return the valor
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @param value the valor to set
+     */
+    public void setValue(T value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the ChildRight
+     */
+    public NodeTree<T> getChildRight() {
+        return ChildRight;
+    }
+
+    /**
+     * @param ChildRight the ChildRight to set
+     */
+    public void setChildRight(NodeTree<T> ChildRight) {
+        this.ChildRight = ChildRight;
+    }
+
+    /**
+     * @return the filhoEsquerda
+     */
+    public NodeTree<T> getChildLeft() {
+        return ChildLeft;
+    }
+
+    /**
+     * @param ChildLeft the ChildLeft to set
+     */
+    public void setChildLeft(NodeTree<T> ChildLeft) {
+        this.ChildLeft = ChildLeft;
+    }
+
+    /**
+     * @return a altura da subárvore enraizada neste nó (folha tem altura 0)
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param height a altura da subárvore enraizada neste nó
+     */
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    /**
+     * @return a quantidade de nós da subárvore enraizada neste nó (incluindo ele)
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param size a quantidade de nós da subárvore enraizada neste nó
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Prepara um nó reaproveitado (de um pool) para guardar um novo valor, como se
+     * tivesse acabado de ser criado.
+     *
+     * @param value valor do nó
+     */
+    void reiniciar(T value) {
+        this.value = value;
+        this.ChildLeft = null;
+        this.ChildRight = null;
+        this.height = 0;
+        this.size = 1;
+    }
+
+    /**
+     * @return novo nó com o mesmo valor, altura e tamanho deste, sem filhos
+     */
+    NodeTree<T> copiar() {
+        NodeTree<T> copia = new NodeTree<>(value);
+        copia.height = height;
+        copia.size = size;
+        return copia;
+    }
+
+
+}
+
@@ -0,0 +1,29 @@
+package lib;
+
+/**
+ * Nó da BinTreeRB: um NodeTree com a cor. Nós novos nascem vermelhos.
+ *
+ * @param <T> tipo do valor armazenado
+ */
+class NodeTreeRB<T> extends NodeTree<T> {
+    boolean vermelho = true;
+
+    NodeTreeRB(T value) {
+        super(value);
+    }
+
+    @Override
+    void reiniciar(T value) {
+        super.reiniciar(value);
+        vermelho = true;
+    }
+
+    @Override
+    NodeTree<T> copiar() {
+        NodeTreeRB<T> copia = new NodeTreeRB<>(getValue());
+        copia.setHeight(getHeight());
+        copia.setSize(getSize());
+        copia.vermelho = vermelho;
+        return copia;
+    }
+}
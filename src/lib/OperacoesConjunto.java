@@ -0,0 +1,168 @@
+package lib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Algoritmos baseados em junção (split/join) usados por BinTree.split, BinTree.join,
+ * uniao, intersecao e diferenca.
+ *
+ * Todos são escritos sobre duas primitivas da árvore: dividir (que separa uma
+ * subárvore pela chave e religa as partes com juntar) e o próprio juntar da árvore.
+ * Como a BinTreeAVL sobrescreve juntar mantendo o balanceamento, os resultados
+ * continuam AVL e o custo das operações de conjunto entre árvores de tamanhos
+ * n e m (m &lt;= n) é O(m log(n/m + 1)).
+ *
+ * As funções consomem os nós de 'a', que quem chama não deve mais usar. Os de 'b'
+ * também são consumidos, a menos que a instância seja criada com preservarB: aí 'b'
+ * pertence a outra árvore, nunca é alterada, e cada nó dela só é copiado quando
+ * entra no resultado. Assim uma união custa O(m log(n/m + 1)) mais as cópias dos
+ * nós de 'b' que não estavam em 'a', e intersecao e diferenca não copiam nada.
+ *
+ * @param <T> tipo dos elementos da árvore
+ */
+final class OperacoesConjunto<T> {
+    static final int UNIAO = 0;
+    static final int INTERSECAO = 1;
+    static final int DIFERENCA = 2;
+
+    /** Soma mínima dos tamanhos das subárvores para que a versão paralela dispare tarefas. */
+    static final int LIMIAR_PARALELO = 8192;
+
+    private final BinTree<T> arvore;     // fornece o comparator e o juntar (balanceado ou não)
+    private final boolean preservarB;    // os nós de 'b' são de outra árvore: copia ao religar
+
+    OperacoesConjunto(BinTree<T> arvore) {
+        this(arvore, false);
+    }
+
+    /**
+     * @param preservarB se true, os nós de 'b' em combinar não são alterados: os que
+     *                   entram no resultado são copiados
+     */
+    OperacoesConjunto(BinTree<T> arvore, boolean preservarB) {
+        this.arvore = arvore;
+        this.preservarB = preservarB;
+    }
+
+    /**
+     * Resultado de uma divisão: os nós menores que a chave, o nó igual a ela (se
+     * existir, já sem filhos úteis) e os nós maiores.
+     */
+    static class Divisao<T> {
+        NodeTree<T> menores;
+        NodeTree<T> igual;
+        NodeTree<T> maiores;
+    }
+
+    /**
+     * Divide a subárvore de node pela chave. Custa O(altura).
+     */
+    Divisao<T> dividir(NodeTree<T> node, T chave) {
+        if (node == null) {
+            return new Divisao<>();
+        }
+        int comp = arvore.comparator.compare(chave, node.getValue());
+        if (comp == 0) {
+            Divisao<T> d = new Divisao<>();
+            d.menores = node.getChildLeft();
+            d.igual = node;
+            d.maiores = node.getChildRight();
+            return d;
+        }
+        if (comp < 0) {
+            Divisao<T> d = dividir(node.getChildLeft(), chave);
+            d.maiores = arvore.juntar(d.maiores, node, node.getChildRight());
+            return d;
+        }
+        Divisao<T> d = dividir(node.getChildRight(), chave);
+        d.menores = arvore.juntar(node.getChildLeft(), node, d.menores);
+        return d;
+    }
+
+    /**
+     * Combina duas subárvores segundo a operação (UNIAO, INTERSECAO ou DIFERENCA).
+     * Em caso de elementos iguais, o nó (e o valor) de 'a' é mantido.
+     */
+    NodeTree<T> combinar(NodeTree<T> a, NodeTree<T> b, int operacao) {
+        if (a == null) return operacao == UNIAO ? (preservarB ? copiar(b) : b) : null;
+        if (b == null) return operacao == INTERSECAO ? null : a;
+
+        NodeTree<T> bLeft = b.getChildLeft();
+        NodeTree<T> bRight = b.getChildRight();
+        Divisao<T> d = dividir(a, b.getValue());
+        NodeTree<T> left = combinar(d.menores, bLeft, operacao);
+        NodeTree<T> right = combinar(d.maiores, bRight, operacao);
+        return montar(left, d.igual, b, right, operacao);
+    }
+
+    /**
+     * Versão paralela de combinar: as duas metades são resolvidas em tarefas do
+     * ForkJoinPool comum enquanto forem grandes o suficiente.
+     */
+    NodeTree<T> combinarParalelo(NodeTree<T> a, NodeTree<T> b, int operacao) {
+        return ForkJoinPool.commonPool().invoke(new TarefaCombinar(a, b, operacao));
+    }
+
+    /**
+     * Religa as metades já combinadas. 'igual' é o nó de 'a' com a chave da raiz de 'b'.
+     */
+    private NodeTree<T> montar(NodeTree<T> left, NodeTree<T> igual, NodeTree<T> raizB,
+                               NodeTree<T> right, int operacao) {
+        switch (operacao) {
+            case UNIAO:
+                if (igual != null) return arvore.juntar(left, igual, right);
+                return arvore.juntar(left, preservarB ? raizB.copiar() : raizB, right);
+            case INTERSECAO:
+                return igual != null ? arvore.juntar(left, igual, right) : arvore.juntar(left, right);
+            default:
+                return arvore.juntar(left, right);
+        }
+    }
+
+    /**
+     * Copia uma subárvore (estrutura, alturas, tamanhos e o que mais o tipo do nó
+     * guardar), compartilhando os valores.
+     */
+    static <T> NodeTree<T> copiar(NodeTree<T> node) {
+        if (node == null) return null;
+        NodeTree<T> copia = node.copiar();
+        copia.setChildLeft(copiar(node.getChildLeft()));
+        copia.setChildRight(copiar(node.getChildRight()));
+        return copia;
+    }
+
+    private static int tamanho(NodeTree<?> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    private class TarefaCombinar extends RecursiveTask<NodeTree<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final NodeTree<T> a;
+        private final NodeTree<T> b;
+        private final int operacao;
+
+        TarefaCombinar(NodeTree<T> a, NodeTree<T> b, int operacao) {
+            this.a = a;
+            this.b = b;
+            this.operacao = operacao;
+        }
+
+        @Override
+        protected NodeTree<T> compute() {
+            if (a == null || b == null || tamanho(a) + tamanho(b) < LIMIAR_PARALELO) {
+                return combinar(a, b, operacao);
+            }
+            NodeTree<T> bLeft = b.getChildLeft();
+            NodeTree<T> bRight = b.getChildRight();
+            Divisao<T> d = dividir(a, b.getValue());
+            // as duas metades trabalham sobre nós disjuntos
+            TarefaCombinar leftTask = new TarefaCombinar(d.menores, bLeft, operacao);
+            leftTask.fork();
+            NodeTree<T> right = new TarefaCombinar(d.maiores, bRight, operacao).compute();
+            NodeTree<T> left = leftTask.join();
+            return montar(left, d.igual, b, right, operacao);
+        }
+    }
+}
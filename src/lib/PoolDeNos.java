@@ -0,0 +1,41 @@
+package lib;
+
+/**
+ * Pilha de nós livres usada pelo modo pool da BinTree.
+ *
+ * Os nós guardados têm o valor e os filhos apagados, para não manter vivos objetos
+ * que já saíram da árvore. Acima da capacidade os nós devolvidos são descartados
+ * (ficam para o coletor de lixo).
+ *
+ * @param <T> tipo dos elementos da árvore
+ */
+final class PoolDeNos<T> {
+    private final NodeTree<T>[] livres;
+    private int quantidade;
+
+    @SuppressWarnings("unchecked")
+    PoolDeNos(int capacidade) {
+        livres = (NodeTree<T>[]) new NodeTree<?>[capacidade];
+    }
+
+    /**
+     * @return um nó livre, ou null se o pool estiver vazio
+     */
+    NodeTree<T> retirar() {
+        if (quantidade == 0) return null;
+        NodeTree<T> node = livres[--quantidade];
+        livres[quantidade] = null;
+        return node;
+    }
+
+    /**
+     * Guarda um nó que não faz mais parte de nenhuma árvore.
+     */
+    void guardar(NodeTree<T> node) {
+        if (quantidade == livres.length) return;
+        node.setValue(null);
+        node.setChildLeft(null);
+        node.setChildRight(null);
+        livres[quantidade++] = node;
+    }
+}
@@ -0,0 +1,198 @@
+package lib;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Snapshot binário de uma BinTree (ou subclasse) e recarga rápida.
+ *
+ * salvar grava os elementos em ordem (pelo iterador da árvore) em um canal NIO, com
+ * os valores convertidos por um CodecValor. carregar lê os valores na mesma ordem e
+ * monta a árvore perfeitamente balanceada com construirBalanceada, em O(n) e sem
+ * nenhuma chamada ao comparator: a ordem do arquivo é a do comparator da árvore que
+ * foi salva, então o snapshot deve ser carregado em uma árvore com o mesmo critério.
+ * A árvore montada é válida para BinTree, BinTreeAVL e BinTreeRB (cada uma ajusta a
+ * sua informação extra em construirBalanceada).
+ *
+ * Formato (big-endian): o int MAGICO, o int VERSAO, a quantidade de elementos (int)
+ * e, para cada elemento, o tamanho do registro em bytes (int) seguido dos bytes
+ * gravados pelo codec.
+ *
+ * A leitura e a escrita passam por buffers de 1 MiB, então o custo de uma recarga é
+ * dominado pela E/S e pela criação dos valores e dos nós.
+ */
+public final class SnapshotArvore {
+    static final int MAGICO = 0x41525642;          // "ARVB"
+    static final int VERSAO = 1;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    private static final int CAPACIDADE_INICIAL = 1 << 16;   // elementos, se o tamanho do canal é desconhecido
+
+    private SnapshotArvore() {
+    }
+
+    /**
+     * Grava o snapshot da árvore em um arquivo (criado ou sobrescrito).
+     */
+    public static <T> void salvar(BinTree<T> arvore, CodecValor<T> codec, Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            salvar(arvore, codec, canal);
+        }
+    }
+
+    /**
+     * Grava o snapshot da árvore no canal. A árvore não deve ser alterada durante a gravação.
+     *
+     * @param arvore árvore a ser gravada
+     * @param codec  conversor dos valores para bytes
+     * @param canal  destino (não é fechado)
+     */
+    public static <T> void salvar(BinTree<T> arvore, CodecValor<T> codec, WritableByteChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        buffer.putInt(MAGICO).putInt(VERSAO).putInt(arvore.quantidadeNos());
+        for (T valor : arvore) {
+            while (true) {
+                int inicio = buffer.position();
+                try {
+                    buffer.putInt(0); // tamanho, preenchido depois do valor
+                    codec.escrever(valor, buffer);
+                    buffer.putInt(inicio, buffer.position() - inicio - 4);
+                    break;
+                } catch (BufferOverflowException e) {
+                    buffer.position(inicio);
+                    if (inicio == 0) {
+                        // o valor não cabe nem no buffer vazio
+                        buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    } else {
+                        esvaziar(buffer, canal);
+                    }
+                }
+            }
+        }
+        esvaziar(buffer, canal);
+    }
+
+    private static void esvaziar(ByteBuffer buffer, WritableByteChannel canal) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Substitui o conteúdo da árvore pelo snapshot gravado no arquivo.
+     */
+    public static <T> void carregar(Path arquivo, CodecValor<T> codec, BinTree<T> destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            carregar(canal, codec, destino);
+        }
+    }
+
+    /**
+     * Substitui o conteúdo da árvore pelo snapshot lido do canal, sem chamar o
+     * comparator. Se o snapshot for inválido a árvore não é alterada.
+     *
+     * @param canal   origem (não é fechado)
+     * @param codec   conversor dos bytes para valores
+     * @param destino árvore vazia ou cujo conteúdo será descartado, com o mesmo
+     *                comparator da árvore salva
+     * @throws IOException se o canal não contiver um snapshot válido e completo,
+     *                     inclusive se o codec falhar ao ler algum registro
+     */
+    public static <T> void carregar(ReadableByteChannel canal, CodecValor<T> codec, BinTree<T> destino) throws IOException {
+        // buffer no heap: o codec pode decodificar textos direto do vetor, sem cópia
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+        buffer.flip();
+        buffer = garantir(buffer, canal, 12);
+        if (buffer.getInt() != MAGICO) {
+            throw new IOException("Não é um snapshot de árvore.");
+        }
+        int versao = buffer.getInt();
+        if (versao != VERSAO) {
+            throw new IOException("Versão de snapshot não suportada: " + versao);
+        }
+        int n = buffer.getInt();
+        // cada registro tem ao menos o int do tamanho: um cabeçalho corrompido não pode
+        // provocar uma alocação maior que o próprio arquivo
+        long disponivel = bytesDisponiveis(canal, buffer);
+        if (n < 0 || (long) n * 4 > disponivel) {
+            throw new IOException("Quantidade de elementos inválida: " + n);
+        }
+        // sem saber o tamanho do canal, o vetor cresce conforme os registros chegam
+        Object[] valores = new Object[disponivel == Long.MAX_VALUE ? Math.min(n, CAPACIDADE_INICIAL) : n];
+        for (int i = 0; i < n; i++) {
+            if (i == valores.length) {
+                valores = Arrays.copyOf(valores, (int) Math.min(n, 2L * valores.length));
+            }
+            buffer = garantir(buffer, canal, 4);
+            int tamanho = buffer.getInt();
+            if (tamanho < 0) {
+                throw new IOException("Registro com tamanho inválido: " + tamanho);
+            }
+            if (tamanho > buffer.remaining() && tamanho > bytesDisponiveis(canal, buffer)) {
+                throw new EOFException("Snapshot incompleto.");
+            }
+            buffer = garantir(buffer, canal, tamanho);
+            int limite = buffer.limit();
+            int fim = buffer.position() + tamanho;
+            buffer.limit(fim);
+            try {
+                valores[i] = codec.ler(buffer);
+            } catch (RuntimeException e) {
+                throw new IOException("registro " + i + " corrompido", e);
+            }
+            if (buffer.position() != fim) {
+                throw new IOException("O codec não leu o registro " + i + " inteiro.");
+            }
+            buffer.limit(limite);
+        }
+        destino.construirBalanceada(valores, n);
+    }
+
+    /**
+     * @return bytes ainda não lidos (no buffer e no arquivo), ou Long.MAX_VALUE se o
+     *         canal não for um FileChannel
+     */
+    private static long bytesDisponiveis(ReadableByteChannel canal, ByteBuffer buffer) throws IOException {
+        if (canal instanceof FileChannel) {
+            FileChannel arquivo = (FileChannel) canal;
+            return Math.max(0, arquivo.size() - arquivo.position()) + buffer.remaining();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Garante que haja pelo menos 'bytes' bytes não lidos no buffer (em modo de
+     * leitura), lendo mais do canal e aumentando o buffer se for preciso. O buffer
+     * só dobra depois de cheio, então um tamanho corrompido chega ao fim do canal
+     * antes de provocar uma alocação muito maior que os dados lidos.
+     *
+     * @return o buffer (um novo, se precisou aumentar)
+     */
+    private static ByteBuffer garantir(ByteBuffer buffer, ReadableByteChannel canal, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return buffer;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (!buffer.hasRemaining()) {
+                ByteBuffer maior = ByteBuffer.allocate((int) Math.min(bytes, 2L * buffer.capacity()));
+                buffer.flip();
+                maior.put(buffer);
+                buffer = maior;
+            }
+            if (canal.read(buffer) < 0) {
+                throw new EOFException("Snapshot incompleto.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
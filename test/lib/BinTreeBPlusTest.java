@@ -0,0 +1,126 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Árvore B+ de ordens pequenas (onde divisões, empréstimos e junções acontecem a
+ * todo momento) comparada com TreeSet.
+ */
+class BinTreeBPlusTest {
+
+    private static final int FAIXA = 3_000;
+
+    /**
+     * Maior altura possível com n elementos se todos os nós, exceto a raiz, têm pelo
+     * menos ordem / 2 chaves: com a raiz interna há ao menos 2 (ordem / 2 + 1)^(h - 1)
+     * folhas de ordem / 2 elementos.
+     */
+    private static int alturaMaxima(int n, int ordem) {
+        int minimo = ordem / 2;
+        int h = 0;
+        long folhas = 2;
+        while (folhas * minimo <= n) {
+            h++;
+            folhas *= minimo + 1;
+        }
+        return h;
+    }
+
+    private static void conferir(BinTreeBPlus<Integer> arvore, TreeSet<Integer> esperado, int ordem) {
+        List<Integer> obtido = new ArrayList<>();
+        arvore.forEach(obtido::add);
+        assertEquals(new ArrayList<>(esperado), obtido);
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        assertEquals(esperado.stream().map(String::valueOf).collect(Collectors.joining(" ")),
+                arvore.caminharEmOrdem());
+        if (esperado.isEmpty()) {
+            assertEquals(-1, arvore.altura());
+        } else {
+            int maxima = alturaMaxima(esperado.size(), ordem);
+            assertTrue(arvore.altura() <= maxima,
+                    "ordem " + ordem + ": altura " + arvore.altura() + " com " + esperado.size() + " elementos");
+        }
+    }
+
+    @Test
+    void divisoesEmprestimosEJuncoesBatemComTreeSet() {
+        for (int ordem = 3; ordem <= 7; ordem++) {
+            Random rand = new Random(18 + ordem);
+            BinTreeBPlus<Integer> arvore = new BinTreeBPlus<>(Integer::compare, ordem);
+            TreeSet<Integer> esperado = new TreeSet<>();
+
+            for (int i = 1; i <= 30_000; i++) {
+                int v = rand.nextInt(FAIXA);
+                // fases de crescimento e de esvaziamento alternadas
+                boolean crescer = (i / 5_000) % 2 == 0;
+                if (rand.nextInt(4) < (crescer ? 3 : 1)) {
+                    arvore.adicionar(v);
+                    esperado.add(v);
+                } else {
+                    assertEquals(esperado.remove(v) ? Integer.valueOf(v) : null, arvore.remover(v));
+                }
+                if (i % 1_000 == 0) {
+                    conferir(arvore, esperado, ordem);
+                }
+            }
+            for (int v = -1; v <= FAIXA; v++) {
+                assertEquals(esperado.contains(v) ? Integer.valueOf(v) : null, arvore.pesquisar(v));
+            }
+
+            // esvaziar por completo, da esquerda e da direita, força junções até a raiz
+            while (!esperado.isEmpty()) {
+                Integer v = rand.nextBoolean() ? esperado.pollFirst() : esperado.pollLast();
+                assertEquals(v, arvore.remover(v));
+                if (esperado.size() % 97 == 0) {
+                    conferir(arvore, esperado, ordem);
+                }
+            }
+            conferir(arvore, esperado, ordem);
+            arvore.adicionar(1);
+            esperado.add(1);
+            conferir(arvore, esperado, ordem);
+        }
+    }
+
+    @Test
+    void insercaoCrescenteEDecrescente() {
+        for (int ordem = 3; ordem <= 7; ordem++) {
+            BinTreeBPlus<Integer> arvore = new BinTreeBPlus<>(Integer::compare, ordem);
+            TreeSet<Integer> esperado = new TreeSet<>();
+            for (int i = 0; i < 2_000; i++) {
+                arvore.adicionar(i);
+                arvore.adicionar(-i);
+                esperado.add(i);
+                esperado.add(-i);
+            }
+            conferir(arvore, esperado, ordem);
+            for (int i = 0; i < 2_000; i += 2) {
+                assertEquals(Integer.valueOf(i), arvore.remover(i));
+                esperado.remove(i);
+            }
+            conferir(arvore, esperado, ordem);
+        }
+    }
+
+    @Test
+    void pesquisaPorOutroComparadorEOrdemInvalida() {
+        BinTreeBPlus<Integer> arvore = new BinTreeBPlus<>(Integer::compare, 4);
+        for (int i = 0; i < 500; i++) {
+            arvore.adicionar(i);
+        }
+        // comparador por resto: o primeiro elemento na ordem com resto 3 é o 3
+        assertEquals(Integer.valueOf(3), arvore.pesquisar(13, (a, b) -> Integer.compare(a % 10, b % 10)));
+        assertNull(arvore.pesquisar(-1, Integer::compare));
+        assertThrows(IllegalArgumentException.class, () -> new BinTreeBPlus<Integer>(Integer::compare, 2));
+    }
+}
@@ -0,0 +1,117 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Adições e remoções concorrentes comparadas com um conjunto de referência, e união
+ * dos fragmentos de faixas esvaziadas.
+ */
+class BinTreeFragmentadaTest {
+
+    private static final int THREADS = 4;
+    private static final int FAIXA = 400_000;
+
+    /**
+     * Cada thread altera só as chaves com key % THREADS == t, então a referência de
+     * cada uma é exata; as chaves de threads diferentes se intercalam em todos os
+     * fragmentos, o que exercita os locks, as divisões e as uniões.
+     */
+    private static List<TreeSet<Integer>> executar(BinTreeFragmentada<Integer> arvore, int operacoes,
+                                                   int percentualAdicao, List<TreeSet<Integer>> referencias)
+            throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int id = t;
+                TreeSet<Integer> ref = referencias.get(t);
+                tarefas.add(threads.submit((Callable<Void>) () -> {
+                    Random rand = new Random(100 + id);
+                    for (int i = 0; i < operacoes; i++) {
+                        int v = rand.nextInt(FAIXA / THREADS) * THREADS + id;
+                        if (rand.nextInt(100) < percentualAdicao) {
+                            arvore.adicionar(v);
+                            ref.add(v);
+                        } else {
+                            assertEquals(ref.remove(v) ? Integer.valueOf(v) : null, arvore.remover(v));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        return referencias;
+    }
+
+    private static void conferir(BinTreeFragmentada<Integer> arvore, List<TreeSet<Integer>> referencias) {
+        TreeSet<Integer> esperado = new TreeSet<>();
+        referencias.forEach(esperado::addAll);
+        List<Integer> obtido = new ArrayList<>();
+        arvore.forEach(obtido::add);
+        assertEquals(new ArrayList<>(esperado), obtido);
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        for (int v : esperado) {
+            assertEquals(Integer.valueOf(v), arvore.pesquisar(v));
+        }
+        assertNull(arvore.pesquisar(-1));
+    }
+
+    @Test
+    void adicoesERemocoesConcorrentesBatemComAReferencia() throws Exception {
+        BinTreeFragmentada<Integer> arvore = new BinTreeFragmentada<>(Integer::compare, 8);
+        List<TreeSet<Integer>> referencias = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            referencias.add(new TreeSet<>());
+        }
+
+        executar(arvore, 60_000, 80, referencias);
+        conferir(arvore, referencias);
+        int cheia = arvore.quantidadeFragmentos();
+        assertTrue(cheia > 1, "a árvore deveria ter sido dividida: " + cheia);
+
+        executar(arvore, 60_000, 50, referencias);
+        conferir(arvore, referencias);
+    }
+
+    @Test
+    void faixaEsvaziadaUneOsFragmentos() throws Exception {
+        BinTreeFragmentada<Integer> arvore = new BinTreeFragmentada<>(Integer::compare, 8);
+        List<TreeSet<Integer>> referencias = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            referencias.add(new TreeSet<>());
+        }
+        executar(arvore, 60_000, 100, referencias);
+        int cheia = arvore.quantidadeFragmentos();
+        assertEquals(8, cheia);
+
+        // esvazia 7/8 da faixa de chaves, de baixo para cima
+        for (TreeSet<Integer> ref : referencias) {
+            for (Integer v : new ArrayList<>(ref.headSet(FAIXA / 8 * 7))) {
+                assertEquals(v, arvore.remover(v));
+                ref.remove(v);
+            }
+        }
+
+        conferir(arvore, referencias);
+        assertTrue(arvore.quantidadeFragmentos() < cheia / 2,
+                "fragmentos depois de esvaziar: " + arvore.quantidadeFragmentos());
+    }
+}
@@ -0,0 +1,98 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Persistência da árvore mapeada entre aberturas e recusa de arquivos de outro formato.
+ */
+class BinTreeMapeadaTest {
+
+    private static final CodecValor<Integer> INTEIRO = new CodecValor<>() {
+        @Override
+        public void escrever(Integer valor, ByteBuffer destino) {
+            destino.putInt(valor);
+        }
+
+        @Override
+        public Integer ler(ByteBuffer origem) {
+            return origem.getInt();
+        }
+    };
+
+    private static BinTreeMapeada<Integer> abrir(Path arquivo) throws IOException {
+        return new BinTreeMapeada<>(arquivo, Integer::compare, INTEIRO);
+    }
+
+    private static List<Integer> elementos(BinTreeMapeada<Integer> arvore) {
+        List<Integer> lista = new ArrayList<>();
+        arvore.forEach(lista::add);
+        return lista;
+    }
+
+    @Test
+    void reabreDepoisDeFecharEDeRemover() throws IOException {
+        Path arquivo = Files.createTempFile("mapeada", ".arv");
+        try {
+            TreeSet<Integer> esperado = new TreeSet<>();
+            Random rand = new Random(7);
+            try (BinTreeMapeada<Integer> arvore = abrir(arquivo)) {
+                for (int i = 0; i < 5_000; i++) {
+                    int v = rand.nextInt(20_000);
+                    arvore.adicionar(v);
+                    esperado.add(v);
+                }
+            }
+            try (BinTreeMapeada<Integer> arvore = abrir(arquivo)) {
+                assertEquals(new ArrayList<>(esperado), elementos(arvore));
+                for (int i = 0; i < 3_000; i++) {
+                    int v = rand.nextInt(20_000);
+                    assertEquals(esperado.remove(v) ? Integer.valueOf(v) : null, arvore.remover(v));
+                }
+            }
+            try (BinTreeMapeada<Integer> arvore = abrir(arquivo)) {
+                assertEquals(new ArrayList<>(esperado), elementos(arvore));
+                assertEquals(esperado.size(), arvore.quantidadeNos());
+                assertNull(arvore.pesquisar(-1));
+            }
+        } finally {
+            Files.delete(arquivo);
+        }
+    }
+
+    @Test
+    void arquivoDeOutroFormatoNaoEAlterado() throws IOException {
+        Path pequeno = Files.createTempFile("texto", ".txt");
+        Path grande = Files.createTempFile("dados", ".bin");
+        try {
+            byte[] texto = "teste".getBytes(StandardCharsets.UTF_8);
+            Files.write(pequeno, texto);
+            byte[] dados = new byte[4_096];
+            new Random(1).nextBytes(dados);
+            Files.write(grande, dados);
+
+            assertThrows(IOException.class, () -> abrir(pequeno));
+            assertThrows(IOException.class, () -> abrir(grande));
+
+            assertEquals(texto.length, Files.size(pequeno));
+            assertEquals(Arrays.toString(texto), Arrays.toString(Files.readAllBytes(pequeno)));
+            assertEquals(dados.length, Files.size(grande));
+        } finally {
+            Files.delete(pequeno);
+            Files.delete(grande);
+        }
+    }
+}
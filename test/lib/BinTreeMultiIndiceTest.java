@@ -0,0 +1,136 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Índices secundários comparados com um TreeMap sob adições e remoções aleatórias.
+ */
+class BinTreeMultiIndiceTest {
+
+    private static final int CHAVES = 3_000;
+    private static final int GRUPOS = 200;
+
+    /** Elemento com chave única e grupo repetível (como matrícula e telefone). */
+    static final class Registro {
+        final int chave;
+        final int grupo;
+
+        Registro(int chave, int grupo) {
+            this.chave = chave;
+            this.grupo = grupo;
+        }
+
+        @Override
+        public String toString() {
+            return chave + "/" + grupo;
+        }
+    }
+
+    private static final Comparator<Registro> POR_CHAVE = Comparator.comparingInt(r -> r.chave);
+    private static final Comparator<Registro> POR_GRUPO = Comparator.comparingInt(r -> r.grupo);
+
+    private static Registro chave(int chave) {
+        return new Registro(chave, -1);
+    }
+
+    private static Registro grupo(int grupo) {
+        return new Registro(-1, grupo);
+    }
+
+    private static void conferir(BinTreeMultiIndice<Registro> arvore, TreeMap<Integer, Registro> esperado,
+                                 Comparator<Registro> comparador) {
+        assertEquals(new ArrayList<>(esperado.values()), lista(arvore));
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        Map<Integer, List<Registro>> porGrupo = new HashMap<>();
+        for (Registro r : esperado.values()) {
+            porGrupo.computeIfAbsent(r.grupo, g -> new ArrayList<>()).add(r);
+        }
+        for (int g = -1; g <= GRUPOS; g++) {
+            Registro achado = arvore.pesquisar(grupo(g), comparador);
+            List<Registro> doGrupo = porGrupo.get(g);
+            if (doGrupo == null) {
+                assertNull(achado, "grupo " + g);
+            } else {
+                assertTrue(doGrupo.contains(achado), "grupo " + g + ": " + achado);
+            }
+        }
+    }
+
+    private static List<Registro> lista(BinTreeMultiIndice<Registro> arvore) {
+        List<Registro> lista = new ArrayList<>();
+        arvore.forEach(lista::add);
+        return lista;
+    }
+
+    @Test
+    void pesquisaPorIndiceSecundarioBateComAReferencia() {
+        Random rand = new Random(9);
+        BinTreeMultiIndice<Registro> arvore = new BinTreeMultiIndice<>(POR_CHAVE);
+        TreeMap<Integer, Registro> esperado = new TreeMap<>();
+
+        // parte dos elementos entra antes do registro do índice
+        for (int i = 0; i < 1_000; i++) {
+            Registro r = new Registro(rand.nextInt(CHAVES), rand.nextInt(GRUPOS));
+            arvore.adicionar(r);
+            esperado.putIfAbsent(r.chave, r);
+        }
+        arvore.adicionarIndice(POR_GRUPO);
+        conferir(arvore, esperado, POR_GRUPO);
+
+        for (int i = 1; i <= 20_000; i++) {
+            int k = rand.nextInt(CHAVES);
+            if (rand.nextBoolean()) {
+                Registro r = new Registro(k, rand.nextInt(GRUPOS));
+                arvore.adicionar(r);
+                // duplicatas pela chave principal são ignoradas
+                esperado.putIfAbsent(k, r);
+            } else {
+                assertSame(esperado.remove(k), arvore.remover(chave(k)));
+            }
+            if (i % 2_000 == 0) {
+                conferir(arvore, esperado, POR_GRUPO);
+            }
+        }
+        for (int k = 0; k < CHAVES; k++) {
+            assertSame(esperado.get(k), arvore.pesquisar(chave(k)));
+        }
+        List<Registro> ordem = new ArrayList<>(esperado.values());
+        assertEquals(ordem.subList(10, 60), arvore.pagina(10, 50));
+    }
+
+    @Test
+    void semIndiceAPesquisaVarreAArvore() {
+        Random rand = new Random(10);
+        BinTreeMultiIndice<Registro> arvore = new BinTreeMultiIndice<>(POR_CHAVE);
+        TreeMap<Integer, Registro> esperado = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            Registro r = new Registro(rand.nextInt(CHAVES), rand.nextInt(GRUPOS));
+            arvore.adicionar(r);
+            esperado.putIfAbsent(r.chave, r);
+        }
+        conferir(arvore, esperado, POR_GRUPO);
+
+        arvore.adicionarIndice(POR_GRUPO);
+        arvore.removerIndice(POR_GRUPO);
+        for (int k = 0; k < CHAVES; k += 2) {
+            assertSame(esperado.remove(k), arvore.remover(chave(k)));
+        }
+        conferir(arvore, esperado, POR_GRUPO);
+
+        // registrado de novo, o índice é reconstruído com os elementos atuais
+        arvore.adicionarIndice(POR_GRUPO);
+        conferir(arvore, esperado, POR_GRUPO);
+    }
+}
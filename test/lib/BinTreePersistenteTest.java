@@ -0,0 +1,115 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Leituras simultâneas de um mesmo snapshot enquanto a árvore original é alterada e
+ * métricas da árvore persistente.
+ */
+class BinTreePersistenteTest {
+
+    private static final int N = 20_000;
+    private static final int LEITORES = 4;
+    private static final int LEITURAS = 200;
+
+    @Test
+    void snapshotLidoPorVariasThreadsEnquantoOEscritorAltera() throws Exception {
+        BinTreePersistente<Integer> arvore = new BinTreePersistente<>(Integer::compare);
+        for (int i = 0; i < N; i++) {
+            arvore.adicionar(2 * i);
+        }
+        BinTreePersistente<Integer> snapshot = arvore.snapshot();
+        String emOrdem = snapshot.caminharEmOrdem();
+        List<Integer> primeiraPagina = snapshot.pagina(0, 100);
+
+        AtomicBoolean parar = new AtomicBoolean();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(LEITORES + 1);
+        try {
+            Future<?> escritor = threads.submit(() -> {
+                Random rand = new Random(1);
+                largada.await();
+                while (!parar.get()) {
+                    int v = rand.nextInt(2 * N);
+                    if (rand.nextBoolean()) {
+                        arvore.adicionar(v);
+                    } else {
+                        arvore.remover(v);
+                    }
+                }
+                return null;
+            });
+            List<Future<?>> leitores = new ArrayList<>();
+            for (int t = 0; t < LEITORES; t++) {
+                int semente = t;
+                leitores.add(threads.submit(() -> {
+                    Random rand = new Random(semente);
+                    largada.await();
+                    for (int i = 0; i < LEITURAS; i++) {
+                        assertEquals(emOrdem, snapshot.caminharEmOrdem());
+                        assertEquals(primeiraPagina, snapshot.pagina(0, 100));
+                        int v = rand.nextInt(2 * N);
+                        // com um comparator qualquer (não o da árvore) pesquisar faz a varredura com pilha
+                        Integer achado = snapshot.pesquisar(v, (a, b) -> Integer.compare(a, b));
+                        assertEquals(v % 2 == 0 ? Integer.valueOf(v) : null, achado);
+                        assertNull(snapshot.pesquisar(-1, Integer::compare));
+                        long soma = 0;
+                        for (int x : snapshot) {
+                            soma += x;
+                        }
+                        assertEquals((long) N * (N - 1), soma);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> leitor : leitores) {
+                leitor.get(2, TimeUnit.MINUTES);
+            }
+            parar.set(true);
+            escritor.get(1, TimeUnit.MINUTES);
+        } finally {
+            parar.set(true);
+            threads.shutdownNow();
+        }
+        assertEquals(N, snapshot.quantidadeNos());
+    }
+
+    @Test
+    void metricasMedemACopiaDeCaminho() {
+        BinTreePersistente<Integer> arvore = new BinTreePersistente<>(Integer::compare);
+        MetricasArvore metricas = arvore.ativarMetricas();
+        for (int i = 0; i < 1_000; i++) {
+            arvore.adicionar(i); // crescente: força rotações RR
+        }
+        BinTreePersistente<Integer> snapshot = arvore.snapshot();
+        assertEquals(Integer.valueOf(500), arvore.remover(500));
+        assertNull(snapshot.getMetricas());
+        assertEquals(Integer.valueOf(500), snapshot.pesquisar(500));
+
+        MetricasArvore.Retrato r = metricas.retrato();
+        assertEquals(1_000, r.getOperacoes(MetricasArvore.ADICIONAR));
+        assertEquals(1, r.getOperacoes(MetricasArvore.REMOVER));
+        assertTrue(r.getComparacoes(MetricasArvore.ADICIONAR) > 0);
+        assertTrue(r.getRotacoes(MetricasArvore.RR) > 0);
+        assertEquals(r.getComparacoesTotais(), r.getComparacoes(MetricasArvore.ADICIONAR)
+                + r.getComparacoes(MetricasArvore.REMOVER));
+
+        arvore.desativarMetricas();
+        arvore.adicionar(-1);
+        assertEquals(1_000, metricas.retrato().getOperacoes(MetricasArvore.ADICIONAR));
+    }
+}
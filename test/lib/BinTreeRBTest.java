@@ -0,0 +1,57 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Inserção em lote e validação do argumento das operações de conjunto da BinTreeRB.
+ */
+class BinTreeRBTest {
+
+    @Test
+    void adicionarTodosUneOLoteMantendoOsValoresExistentes() {
+        BinTreeRB<Integer> arvore = new BinTreeRB<>(Integer::compare);
+        TreeSet<Integer> esperado = new TreeSet<>();
+        for (int i = 0; i < 5_000; i += 3) {
+            arvore.adicionar(i);
+            esperado.add(i);
+        }
+        List<Integer> lote = new ArrayList<>();
+        for (int i = 10_000; i >= 0; i -= 2) {
+            lote.add(i);
+            lote.add(i); // repetições no próprio lote também são descartadas
+        }
+        esperado.addAll(lote);
+        int antes = arvore.quantidadeNos();
+
+        int inseridos = arvore.adicionarTodos(lote);
+
+        assertEquals(esperado.size() - antes, inseridos);
+        assertEquals(new ArrayList<>(esperado), arvore.stream().collect(Collectors.toList()));
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        assertEquals(0, arvore.adicionarTodos(Arrays.asList(0, 3, 6)));
+    }
+
+    @Test
+    void operacoesDeConjuntoRecusamArvoreDeOutroTipo() {
+        BinTreeRB<Integer> arvore = new BinTreeRB<>(Integer::compare);
+        arvore.adicionar(1);
+        BinTreeAVL<Integer> avl = new BinTreeAVL<>(Integer::compare);
+        avl.adicionar(2);
+
+        assertThrows(IllegalArgumentException.class, () -> arvore.join(avl));
+        assertThrows(IllegalArgumentException.class, () -> arvore.uniao(avl));
+        assertThrows(IllegalArgumentException.class, () -> arvore.intersecao(avl));
+        assertThrows(IllegalArgumentException.class, () -> arvore.diferenca(avl));
+        assertThrows(IllegalArgumentException.class, () -> arvore.uniaoParalela(avl));
+        assertEquals(Arrays.asList(1), arvore.stream().collect(Collectors.toList()));
+        assertEquals(Arrays.asList(2), avl.stream().collect(Collectors.toList()));
+    }
+}
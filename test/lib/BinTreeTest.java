@@ -0,0 +1,331 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BST, AVL e rubro-negra comparadas com TreeSet sob inserções e remoções aleatórias,
+ * com conferência da estrutura (ordem, tamanhos, alturas e balanceamento), das
+ * estatísticas de ordem, da navegação por intervalos, da divisão do spliterator e
+ * das operações em lote.
+ */
+class BinTreeTest {
+
+    private static final int FAIXA = 2_000;
+
+    static List<Supplier<BinTree<Integer>>> tipos() {
+        List<Supplier<BinTree<Integer>>> tipos = new ArrayList<>();
+        tipos.add(() -> new BinTree<>(Integer::compare));
+        tipos.add(() -> new BinTreeAVL<>(Integer::compare));
+        tipos.add(() -> new BinTreeRB<>(Integer::compare));
+        return tipos;
+    }
+
+    /**
+     * Confere elementos, quantidade e altura com a referência e, nó a nó, a ordem, os
+     * tamanhos e alturas guardados e o balanceamento próprio de cada tipo.
+     */
+    static void conferir(BinTree<Integer> arvore, TreeSet<Integer> esperado) {
+        assertEquals(new ArrayList<>(esperado), arvore.stream().collect(Collectors.toList()));
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        if (!esperado.isEmpty()) {
+            assertEquals(altura(arvore.root), arvore.altura());
+        }
+        conferirNo(arvore, arvore.root, null, null);
+        if (arvore instanceof BinTreeRB) {
+            assertFalse(vermelho(arvore.root), "raiz vermelha");
+            conferirCores(arvore.root);
+        }
+    }
+
+    private static int altura(NodeTree<Integer> node) {
+        return node == null ? -1 : 1 + Math.max(altura(node.getChildLeft()), altura(node.getChildRight()));
+    }
+
+    private static void conferirNo(BinTree<Integer> arvore, NodeTree<Integer> node, Integer min, Integer max) {
+        if (node == null) return;
+        int v = node.getValue();
+        assertTrue(min == null || min < v, "ordem violada em " + v);
+        assertTrue(max == null || v < max, "ordem violada em " + v);
+        NodeTree<Integer> esq = node.getChildLeft();
+        NodeTree<Integer> dir = node.getChildRight();
+        conferirNo(arvore, esq, min, v);
+        conferirNo(arvore, dir, v, max);
+        assertEquals(1 + tamanho(esq) + tamanho(dir), node.getSize(), "tamanho em " + v);
+        int hEsq = esq == null ? -1 : esq.getHeight();
+        int hDir = dir == null ? -1 : dir.getHeight();
+        assertEquals(1 + Math.max(hEsq, hDir), node.getHeight(), "altura em " + v);
+        if (arvore instanceof BinTreeAVL) {
+            assertTrue(Math.abs(hEsq - hDir) <= 1, "AVL desbalanceada em " + v);
+        }
+    }
+
+    private static int tamanho(NodeTree<Integer> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    private static boolean vermelho(NodeTree<Integer> node) {
+        return node != null && ((NodeTreeRB<Integer>) node).vermelho;
+    }
+
+    /**
+     * @return quantidade de nós pretos de node até qualquer folha nula
+     */
+    private static int conferirCores(NodeTree<Integer> node) {
+        if (node == null) return 1;
+        if (vermelho(node)) {
+            assertFalse(vermelho(node.getChildLeft()) || vermelho(node.getChildRight()),
+                    "nó vermelho com filho vermelho em " + node.getValue());
+        }
+        int esq = conferirCores(node.getChildLeft());
+        assertEquals(esq, conferirCores(node.getChildRight()), "altura negra em " + node.getValue());
+        return esq + (vermelho(node) ? 0 : 1);
+    }
+
+    /**
+     * Sequência semeada de adições e remoções, com a estrutura conferida a cada
+     * 'intervalo' operações.
+     */
+    static TreeSet<Integer> alterar(BinTree<Integer> arvore, Random rand, int operacoes, int intervalo) {
+        TreeSet<Integer> esperado = new TreeSet<>();
+        for (int i = 1; i <= operacoes; i++) {
+            int v = rand.nextInt(FAIXA);
+            if (rand.nextInt(3) > 0) {
+                arvore.adicionar(v);
+                esperado.add(v);
+            } else {
+                assertEquals(esperado.remove(v) ? Integer.valueOf(v) : null, arvore.remover(v));
+            }
+            if (i % intervalo == 0) {
+                conferir(arvore, esperado);
+            }
+        }
+        conferir(arvore, esperado);
+        return esperado;
+    }
+
+    @Test
+    void adicoesERemocoesBatemComTreeSet() {
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            TreeSet<Integer> esperado = alterar(arvore, new Random(21), 20_000, 500);
+            for (int v = -1; v <= FAIXA; v++) {
+                assertEquals(esperado.contains(v) ? Integer.valueOf(v) : null, arvore.pesquisar(v));
+            }
+            for (Integer v : new ArrayList<>(esperado)) {
+                assertEquals(v, arvore.remover(v));
+            }
+            esperado.clear();
+            conferir(arvore, esperado);
+            assertNull(arvore.remover(0));
+        }
+    }
+
+    @Test
+    void rankSelectEPaginaBatemComTreeSet() {
+        Random rand = new Random(5);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            TreeSet<Integer> esperado = alterar(arvore, rand, 6_000, 6_000);
+            List<Integer> ordem = new ArrayList<>(esperado);
+
+            for (int k = 0; k < ordem.size(); k++) {
+                assertEquals(ordem.get(k), arvore.select(k));
+            }
+            for (int v = -1; v <= FAIXA; v++) {
+                assertEquals(esperado.headSet(v).size(), arvore.rank(v));
+            }
+            for (int i = 0; i < 200; i++) {
+                int lo = rand.nextInt(FAIXA + 2) - 1;
+                int hi = rand.nextInt(FAIXA + 2) - 1;
+                int esperados = lo > hi ? 0 : esperado.subSet(lo, true, hi, true).size();
+                assertEquals(esperados, arvore.countInRange(lo, hi));
+            }
+            for (int i = 0; i < 200; i++) {
+                int inicio = rand.nextInt(ordem.size() + 10);
+                int quantidade = rand.nextInt(50);
+                List<Integer> pagina = ordem.subList(Math.min(inicio, ordem.size()),
+                        Math.min(inicio + quantidade, ordem.size()));
+                assertEquals(pagina, arvore.pagina(inicio, quantidade));
+            }
+        }
+    }
+
+    @Test
+    void posicoesForaDaArvore() {
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            assertThrows(IndexOutOfBoundsException.class, () -> arvore.select(0));
+            assertEquals(0, arvore.rank(7));
+            assertEquals(new ArrayList<>(), arvore.pagina(0, 10));
+            arvore.adicionar(7);
+            assertThrows(IndexOutOfBoundsException.class, () -> arvore.select(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> arvore.select(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> arvore.pagina(-1, 1));
+            assertEquals(new ArrayList<>(), arvore.pagina(0, 0));
+        }
+    }
+
+    private static List<Integer> lista(Iterator<Integer> it) {
+        List<Integer> lista = new ArrayList<>();
+        it.forEachRemaining(lista::add);
+        return lista;
+    }
+
+    @Test
+    void navegacaoEIntervalosBatemComTreeSet() {
+        Random rand = new Random(6);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            assertNull(arvore.first());
+            assertNull(arvore.last());
+            assertNull(arvore.floor(1));
+            assertFalse(arvore.range(null, null).hasNext());
+
+            TreeSet<Integer> esperado = alterar(arvore, rand, 6_000, 6_000);
+
+            assertEquals(esperado.first(), arvore.first());
+            assertEquals(esperado.last(), arvore.last());
+            for (int v = -1; v <= FAIXA; v++) {
+                assertEquals(esperado.floor(v), arvore.floor(v));
+                assertEquals(esperado.ceiling(v), arvore.ceiling(v));
+                assertEquals(esperado.higher(v), arvore.higher(v));
+                assertEquals(esperado.lower(v), arvore.lower(v));
+            }
+            for (int i = 0; i < 300; i++) {
+                int lo = rand.nextInt(FAIXA + 2) - 1;
+                int hi = rand.nextInt(FAIXA + 2) - 1;
+                List<Integer> intervalo = lo > hi ? new ArrayList<>()
+                        : new ArrayList<>(esperado.subSet(lo, true, hi, true));
+                assertEquals(intervalo, lista(arvore.range(lo, hi)));
+            }
+            assertEquals(new ArrayList<>(esperado.headSet(FAIXA / 2, true)), lista(arvore.range(null, FAIXA / 2)));
+            assertEquals(new ArrayList<>(esperado.tailSet(FAIXA / 2, true)), lista(arvore.range(FAIXA / 2, null)));
+            assertEquals(new ArrayList<>(esperado), lista(arvore.range(null, null)));
+
+            Iterator<Integer> it = arvore.range(esperado.last(), null);
+            assertEquals(esperado.last(), it.next());
+            assertFalse(it.hasNext());
+            assertThrows(NoSuchElementException.class, it::next);
+        }
+    }
+
+    /**
+     * Consome o spliterator alternando avanços e divisões aleatórias; o prefixo de cada
+     * divisão é consumido antes do resto, então 'saida' deve sair em ordem.
+     */
+    private static void dividir(Spliterator<Integer> sp, Random rand, List<Integer> saida) {
+        long inicial = sp.estimateSize();
+        long tamanho = inicial;
+        int antes = saida.size();
+        for (int i = rand.nextInt(3); i > 0 && sp.tryAdvance(saida::add); i--) {
+            tamanho--;
+        }
+        assertEquals(tamanho, sp.estimateSize());
+        Spliterator<Integer> prefixo = sp.trySplit();
+        if (prefixo == null) {
+            sp.forEachRemaining(saida::add);
+        } else {
+            assertEquals(tamanho, prefixo.estimateSize() + sp.estimateSize());
+            assertTrue(prefixo.hasCharacteristics(Spliterator.SUBSIZED));
+            dividir(prefixo, rand, saida);
+            dividir(sp, rand, saida);
+        }
+        assertEquals(0, sp.estimateSize());
+        assertEquals(inicial, saida.size() - antes);
+    }
+
+    @Test
+    void spliteratorDivideSemPerderNemRepetirElementos() {
+        Random rand = new Random(8);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            assertNull(arvore.spliterator().trySplit());
+            TreeSet<Integer> esperado = alterar(arvore, rand, 6_000, 6_000);
+
+            for (int rodada = 0; rodada < 20; rodada++) {
+                List<Integer> saida = new ArrayList<>();
+                Spliterator<Integer> sp = arvore.spliterator();
+                assertEquals(esperado.size(), sp.getExactSizeIfKnown());
+                dividir(sp, rand, saida);
+                assertEquals(new ArrayList<>(esperado), saida);
+            }
+
+            assertEquals(new ArrayList<>(esperado), arvore.parallelStream().collect(Collectors.toList()));
+            assertEquals(esperado.stream().mapToLong(Integer::longValue).sum(),
+                    arvore.parallelStream().mapToLong(Integer::longValue).sum());
+            assertEquals(esperado.subSet(100, 200).size(),
+                    arvore.parallelStream().filter(v -> v >= 100 && v < 200).count());
+        }
+    }
+
+    private static List<Integer> lote(Random rand, int tamanho) {
+        List<Integer> lote = new ArrayList<>();
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(rand.nextInt(FAIXA));
+        }
+        return lote;
+    }
+
+    @Test
+    void lotesBatemComTreeSet() {
+        Random rand = new Random(12);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            TreeSet<Integer> esperado = new TreeSet<>();
+            for (int rodada = 0; rodada < 60; rodada++) {
+                // lotes de tamanhos variados, com repetições e valores já presentes
+                List<Integer> lote = lote(rand, rand.nextInt(rodada % 3 == 0 ? 1_500 : 60));
+                if (rand.nextBoolean()) {
+                    int antes = esperado.size();
+                    esperado.addAll(lote);
+                    assertEquals(esperado.size() - antes, arvore.adicionarTodos(lote));
+                } else {
+                    int antes = esperado.size();
+                    esperado.removeAll(lote);
+                    assertEquals(antes - esperado.size(), arvore.removerTodos(lote));
+                }
+                conferir(arvore, esperado);
+            }
+            assertEquals(esperado.size(), arvore.removerTodos(new ArrayList<>(esperado)));
+            esperado.clear();
+            conferir(arvore, esperado);
+        }
+    }
+
+    @Test
+    void lotesEmArvoreDegenerada() {
+        BinTree<Integer> arvore = new BinTree<>(Integer::compare);
+        TreeSet<Integer> esperado = new TreeSet<>();
+        for (int i = 0; i < BinTree.ALTURA_MAXIMA_LOTE + 500; i++) {
+            arvore.adicionar(2 * i);
+            esperado.add(2 * i);
+        }
+        Random rand = new Random(13);
+        List<Integer> novos = lote(rand, 500);
+        int antes = esperado.size();
+        esperado.addAll(novos);
+        assertEquals(esperado.size() - antes, arvore.adicionarTodos(novos));
+        conferir(arvore, esperado);
+
+        List<Integer> retirados = lote(rand, 500);
+        antes = esperado.size();
+        esperado.removeAll(retirados);
+        assertEquals(antes - esperado.size(), arvore.removerTodos(retirados));
+        conferir(arvore, esperado);
+    }
+}
@@ -0,0 +1,149 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IntAVLTree comparada com um TreeMap e reaproveitamento das posições liberadas.
+ */
+class IntAVLTreeTest {
+
+    private static final int FAIXA = 4_000;
+
+    /** Elemento com chave int; elementos de mesma chave são distinguidos pela identidade. */
+    static final class Registro {
+        final int chave;
+
+        Registro(int chave) {
+            this.chave = chave;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(chave);
+        }
+    }
+
+    private static IntAVLTree<Registro> nova() {
+        return new IntAVLTree<>(r -> r.chave);
+    }
+
+    /**
+     * Altura máxima de uma AVL com n nós: a árvore de Fibonacci de altura h tem
+     * F(h + 3) - 1 nós.
+     */
+    private static int alturaMaxima(int n) {
+        int h = -1;
+        long a = 1;
+        long b = 2;
+        while (b - 1 <= n) {
+            h++;
+            long c = a + b;
+            a = b;
+            b = c;
+        }
+        return h;
+    }
+
+    private static void conferir(IntAVLTree<Registro> arvore, TreeMap<Integer, Registro> esperado) {
+        List<Registro> obtido = new ArrayList<>();
+        arvore.forEach(obtido::add);
+        assertEquals(esperado.size(), obtido.size());
+        int i = 0;
+        for (Registro r : esperado.values()) {
+            assertSame(r, obtido.get(i++));
+        }
+        assertEquals(esperado.size(), arvore.quantidadeNos());
+        assertTrue(arvore.altura() <= alturaMaxima(esperado.size()),
+                "altura " + arvore.altura() + " com " + esperado.size() + " elementos");
+    }
+
+    @Test
+    void adicoesERemocoesBatemComTreeMap() {
+        Random rand = new Random(19);
+        IntAVLTree<Registro> arvore = nova();
+        TreeMap<Integer, Registro> esperado = new TreeMap<>();
+        for (int i = 1; i <= 40_000; i++) {
+            int k = rand.nextInt(FAIXA);
+            if (rand.nextInt(3) > 0) {
+                Registro r = new Registro(k);
+                arvore.adicionar(r);
+                esperado.putIfAbsent(k, r); // a segunda inserção da mesma chave é ignorada
+            } else if (rand.nextBoolean()) {
+                assertSame(esperado.remove(k), arvore.remover(k));
+            } else {
+                assertSame(esperado.remove(k), arvore.remover(new Registro(k)));
+            }
+            if (i % 1_000 == 0) {
+                conferir(arvore, esperado);
+            }
+        }
+        for (int k = -1; k <= FAIXA; k++) {
+            assertSame(esperado.get(k), arvore.pesquisar(k));
+            assertSame(esperado.get(k), arvore.pesquisar(new Registro(k)));
+        }
+        for (Map.Entry<Integer, Registro> e : new ArrayList<>(esperado.entrySet())) {
+            assertSame(e.getValue(), arvore.remover(e.getKey()));
+            esperado.remove(e.getKey());
+        }
+        conferir(arvore, esperado);
+        assertEquals(-1, arvore.altura());
+    }
+
+    @Test
+    void posicoesLiberadasSaoReaproveitadas() {
+        Random rand = new Random(20);
+        IntAVLTree<Registro> arvore = nova();
+        TreeMap<Integer, Registro> esperado = new TreeMap<>();
+        for (int k = 0; k < 1_000; k++) {
+            Registro r = new Registro(k);
+            arvore.adicionar(r);
+            esperado.put(k, r);
+        }
+        assertEquals(1_000, arvore.posicoesUsadas());
+
+        // carga estável: cada remoção libera a posição que a inserção seguinte ocupa
+        int maior = esperado.size();
+        for (int i = 1; i <= 50_000; i++) {
+            if (esperado.size() > 900 && (esperado.size() >= 1_000 || rand.nextBoolean())) {
+                Integer k = esperado.ceilingKey(rand.nextInt(FAIXA));
+                if (k == null) {
+                    k = esperado.firstKey();
+                }
+                assertSame(esperado.remove(k), arvore.remover(k));
+            } else {
+                int k = rand.nextInt(FAIXA);
+                Registro r = new Registro(k);
+                arvore.adicionar(r);
+                esperado.putIfAbsent(k, r);
+            }
+            maior = Math.max(maior, esperado.size());
+            assertTrue(arvore.posicoesUsadas() <= maior,
+                    arvore.posicoesUsadas() + " posições para no máximo " + maior + " elementos");
+        }
+        conferir(arvore, esperado);
+
+        // a varredura por posição não devolve elementos que já saíram da árvore
+        Registro removido = esperado.firstEntry().getValue();
+        assertSame(removido, arvore.remover(removido.chave));
+        esperado.remove(removido.chave);
+        assertNull(arvore.pesquisar(removido, (a, b) -> a == b ? 0 : 1));
+
+        for (Integer k : new ArrayList<>(esperado.keySet())) {
+            arvore.remover(k);
+        }
+        for (int k = 0; k < maior; k++) {
+            arvore.adicionar(new Registro(k));
+        }
+        assertEquals(maior, arvore.posicoesUsadas());
+    }
+}
@@ -0,0 +1,44 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Contagens das métricas durante as operações paralelas.
+ */
+class MetricasArvoreTest {
+
+    private static BinTreeAVL<Integer> montar(long semente, int n) {
+        BinTreeAVL<Integer> arvore = new BinTreeAVL<>(Integer::compare);
+        Random rand = new Random(semente);
+        for (int i = 0; i < n; i++) {
+            arvore.adicionar(rand.nextInt(10 * n));
+        }
+        return arvore;
+    }
+
+    @Test
+    void operacaoParalelaContaComoASequencial() {
+        int n = 20 * OperacoesConjunto.LIMIAR_PARALELO;
+        for (int rodada = 0; rodada < 5; rodada++) {
+            BinTreeAVL<Integer> sequencial = montar(rodada, n);
+            BinTreeAVL<Integer> paralela = montar(rodada, n);
+            BinTreeAVL<Integer> outra = montar(100 + rodada, n);
+            MetricasArvore ms = sequencial.ativarMetricas();
+            MetricasArvore mp = paralela.ativarMetricas();
+
+            sequencial.uniao(outra);
+            paralela.uniaoParalela(outra);
+
+            // a versão paralela faz as mesmas divisões e junções, só que em várias threads
+            MetricasArvore.Retrato rs = ms.retrato();
+            MetricasArvore.Retrato rp = mp.retrato();
+            assertTrue(rs.getComparacoesTotais() > 0);
+            assertEquals(rs.getComparacoesTotais(), rp.getComparacoesTotais());
+            assertEquals(rs.getRotacoesSimples(), rp.getRotacoesSimples());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * split, join e operações de conjunto (sequenciais e paralelas) comparados com TreeSet
+ * na BST, na AVL e na rubro-negra.
+ */
+class OperacoesConjuntoTest {
+
+    private static final int UNIAO = 0;
+    private static final int INTERSECAO = 1;
+    private static final int DIFERENCA = 2;
+
+    private static List<Supplier<BinTree<Integer>>> tipos() {
+        List<Supplier<BinTree<Integer>>> tipos = new ArrayList<>();
+        tipos.add(() -> new BinTree<>(Integer::compare));
+        tipos.add(() -> new BinTreeAVL<>(Integer::compare));
+        tipos.add(() -> new BinTreeRB<>(Integer::compare));
+        return tipos;
+    }
+
+    private static BinTree<Integer> montar(Supplier<BinTree<Integer>> tipo, TreeSet<Integer> valores,
+                                           Random rand, int n, int faixa) {
+        BinTree<Integer> arvore = tipo.get();
+        for (int i = 0; i < n; i++) {
+            int v = rand.nextInt(faixa);
+            arvore.adicionar(v);
+            valores.add(v);
+        }
+        return arvore;
+    }
+
+    private static List<Integer> lista(BinTree<Integer> arvore) {
+        return arvore.stream().collect(Collectors.toList());
+    }
+
+    private static void aplicar(BinTree<Integer> a, BinTree<Integer> b, int operacao, boolean paralelo) {
+        switch (operacao) {
+            case UNIAO:
+                if (paralelo) a.uniaoParalela(b); else a.uniao(b);
+                break;
+            case INTERSECAO:
+                if (paralelo) a.intersecaoParalela(b); else a.intersecao(b);
+                break;
+            default:
+                if (paralelo) a.diferencaParalela(b); else a.diferenca(b);
+        }
+    }
+
+    private static void esperar(TreeSet<Integer> a, TreeSet<Integer> b, int operacao) {
+        switch (operacao) {
+            case UNIAO:
+                a.addAll(b);
+                break;
+            case INTERSECAO:
+                a.retainAll(b);
+                break;
+            default:
+                a.removeAll(b);
+        }
+    }
+
+    private static void conferir(int[][] tamanhos, boolean paralelo, long semente) {
+        Random rand = new Random(semente);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            for (int[] t : tamanhos) {
+                for (int operacao = UNIAO; operacao <= DIFERENCA; operacao++) {
+                    TreeSet<Integer> esperado = new TreeSet<>();
+                    TreeSet<Integer> outros = new TreeSet<>();
+                    BinTree<Integer> a = montar(tipo, esperado, rand, t[0], t[2]);
+                    BinTree<Integer> b = montar(tipo, outros, rand, t[1], t[2]);
+                    esperar(esperado, outros, operacao);
+
+                    aplicar(a, b, operacao, paralelo);
+
+                    assertEquals(new ArrayList<>(esperado), lista(a));
+                    assertEquals(esperado.size(), a.quantidadeNos());
+                    // 'outra' não é alterada e continua utilizável
+                    assertEquals(new ArrayList<>(outros), lista(b));
+                    assertEquals(outros.size(), b.quantidadeNos());
+                    b.adicionar(-1);
+                    a.adicionar(-1);
+                    assertEquals(Integer.valueOf(-1), a.pesquisar(-1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void operacoesDeConjuntoSequenciais() {
+        conferir(new int[][] {{0, 50, 100}, {50, 0, 100}, {2_000, 10, 5_000}, {10, 2_000, 5_000},
+                {3_000, 3_000, 4_000}}, false, 11);
+    }
+
+    @Test
+    void operacoesDeConjuntoParalelasAcimaDoLimiar() {
+        int n = 2 * OperacoesConjunto.LIMIAR_PARALELO;
+        conferir(new int[][] {{n, n, 3 * n}, {n, 20, 3 * n}, {20, n, 3 * n}}, true, 12);
+    }
+
+    @Test
+    void uniaoComAPropriaArvore() {
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            TreeSet<Integer> esperado = new TreeSet<>();
+            BinTree<Integer> a = montar(tipo, esperado, new Random(3), 1_000, 5_000);
+            a.uniao(a);
+            assertEquals(new ArrayList<>(esperado), lista(a));
+            a.intersecao(a);
+            assertEquals(new ArrayList<>(esperado), lista(a));
+            a.diferenca(a);
+            assertEquals(0, a.quantidadeNos());
+        }
+    }
+
+    @Test
+    void uniaoDeArvorePequenaNaoPercorreAGrande() {
+        BinTreeAVL<Integer> grande = new BinTreeAVL<>(Integer::compare);
+        List<Integer> valores = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            valores.add(2 * i);
+        }
+        grande.buildFrom(valores.iterator());
+        BinTreeAVL<Integer> pequena = new BinTreeAVL<>(Integer::compare);
+        for (int i = 0; i < 10; i++) {
+            pequena.adicionar(40_000 * i + 1);
+        }
+        MetricasArvore metricas = grande.ativarMetricas();
+
+        grande.uniao(pequena);
+
+        assertEquals(200_010, grande.quantidadeNos());
+        // O(m log(n/m + 1)) comparações: muito menos que o tamanho da árvore grande
+        assertTrue(metricas.retrato().getComparacoesTotais() < 2_000);
+        assertEquals(10, pequena.quantidadeNos());
+    }
+
+    @Test
+    void splitEJoin() {
+        Random rand = new Random(5);
+        for (Supplier<BinTree<Integer>> tipo : tipos()) {
+            for (int rodada = 0; rodada < 20; rodada++) {
+                TreeSet<Integer> esperado = new TreeSet<>();
+                BinTree<Integer> a = montar(tipo, esperado, rand, rand.nextInt(3_000), 10_000);
+                int chave = rand.nextInt(10_000);
+
+                BinTree<Integer> maiores = a.split(chave);
+
+                assertEquals(tipo.get().getClass(), maiores.getClass());
+                assertEquals(new ArrayList<>(esperado.headSet(chave)), lista(a));
+                assertEquals(new ArrayList<>(esperado.tailSet(chave)), lista(maiores));
+
+                a.join(maiores);
+
+                assertEquals(new ArrayList<>(esperado), lista(a));
+                assertEquals(esperado.size(), a.quantidadeNos());
+                assertEquals(0, maiores.quantidadeNos());
+            }
+        }
+    }
+}
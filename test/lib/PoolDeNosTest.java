@@ -0,0 +1,123 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pilha de nós livres e árvores em modo pool comparadas com TreeSet.
+ */
+class PoolDeNosTest {
+
+    private static Set<NodeTree<Integer>> nos(BinTree<Integer> arvore) {
+        Set<NodeTree<Integer>> nos = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<NodeTree<Integer>> pendentes = new ArrayList<>();
+        if (arvore.root != null) pendentes.add(arvore.root);
+        while (!pendentes.isEmpty()) {
+            NodeTree<Integer> node = pendentes.remove(pendentes.size() - 1);
+            nos.add(node);
+            if (node.getChildLeft() != null) pendentes.add(node.getChildLeft());
+            if (node.getChildRight() != null) pendentes.add(node.getChildRight());
+        }
+        return nos;
+    }
+
+    @Test
+    void guardaAteACapacidadeEApagaOsNos() {
+        PoolDeNos<Integer> pool = new PoolDeNos<>(2);
+        assertNull(pool.retirar());
+
+        NodeTree<Integer> a = new NodeTree<>(1);
+        a.setChildLeft(new NodeTree<>(0));
+        a.setChildRight(new NodeTree<>(2));
+        NodeTree<Integer> b = new NodeTree<>(3);
+        NodeTree<Integer> c = new NodeTree<>(4);
+        pool.guardar(a);
+        pool.guardar(b);
+        pool.guardar(c); // acima da capacidade: descartado
+
+        assertNull(a.getValue());
+        assertNull(a.getChildLeft());
+        assertNull(a.getChildRight());
+        assertEquals(Integer.valueOf(4), c.getValue());
+        assertSame(b, pool.retirar());
+        assertSame(a, pool.retirar());
+        assertNull(pool.retirar());
+    }
+
+    @Test
+    void arvoresEmModoPoolBatemComTreeSet() {
+        Random rand = new Random(20);
+        for (Supplier<BinTree<Integer>> tipo : BinTreeTest.tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            arvore.usarPool(500);
+            TreeSet<Integer> esperado = BinTreeTest.alterar(arvore, rand, 20_000, 1_000);
+
+            List<Integer> lote = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                lote.add(rand.nextInt(3_000));
+            }
+            int antes = esperado.size();
+            esperado.removeAll(lote);
+            assertEquals(antes - esperado.size(), arvore.removerTodos(lote));
+            BinTreeTest.conferir(arvore, esperado);
+            antes = esperado.size();
+            esperado.addAll(lote);
+            assertEquals(esperado.size() - antes, arvore.adicionarTodos(lote));
+            BinTreeTest.conferir(arvore, esperado);
+        }
+    }
+
+    @Test
+    void nosRetiradosVoltamParaAArvore() {
+        for (Supplier<BinTree<Integer>> tipo : BinTreeTest.tipos()) {
+            BinTree<Integer> arvore = tipo.get();
+            arvore.usarPool(1_000);
+            TreeSet<Integer> esperado = new TreeSet<>();
+            for (int i = 0; i < 500; i++) {
+                arvore.adicionar(i);
+                esperado.add(i);
+            }
+            Set<NodeTree<Integer>> usados = nos(arvore);
+
+            for (int i = 0; i < 500; i++) {
+                arvore.remover(i);
+            }
+            // o pool é uma pilha: as inserções seguintes recebem os nós recém-devolvidos
+            esperado.clear();
+            for (int i = 1_000; i < 1_500; i++) {
+                arvore.adicionar(i);
+                esperado.add(i);
+            }
+            BinTreeTest.conferir(arvore, esperado);
+            Set<NodeTree<Integer>> novos = nos(arvore);
+            novos.removeAll(usados);
+            assertEquals(0, novos.size(), "nós alocados apesar do pool");
+        }
+    }
+
+    @Test
+    void capacidadeZeroDesativaENegativaERecusada() {
+        BinTree<Integer> arvore = new BinTree<>(Integer::compare);
+        arvore.usarPool(10);
+        arvore.adicionar(1);
+        NodeTree<Integer> no = arvore.root;
+        arvore.remover(1);
+        arvore.usarPool(0);
+        arvore.adicionar(2);
+        assertNotSame(no, arvore.root);
+        assertThrows(IllegalArgumentException.class, () -> arvore.usarPool(-1));
+    }
+}
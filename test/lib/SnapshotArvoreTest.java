@@ -0,0 +1,95 @@
+package lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Recarga de snapshots válidos e rejeição de snapshots corrompidos.
+ */
+class SnapshotArvoreTest {
+
+    private static final CodecValor<String> TEXTO = new CodecValor<>() {
+        @Override
+        public void escrever(String valor, ByteBuffer destino) {
+            CodecValor.escreverTexto(valor, destino);
+        }
+
+        @Override
+        public String ler(ByteBuffer origem) {
+            return CodecValor.lerTexto(origem);
+        }
+    };
+
+    private static byte[] salvar(String... valores) throws IOException {
+        BinTree<String> arvore = new BinTree<>(String::compareTo);
+        arvore.adicionarTodos(Arrays.asList(valores));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        SnapshotArvore.salvar(arvore, TEXTO, Channels.newChannel(saida));
+        return saida.toByteArray();
+    }
+
+    private static void carregar(byte[] bytes, BinTree<String> destino) throws IOException {
+        SnapshotArvore.carregar(Channels.newChannel(new ByteArrayInputStream(bytes)), TEXTO, destino);
+    }
+
+    @Test
+    void recarregaOsMesmosElementos() throws IOException {
+        BinTreeAVL<String> destino = new BinTreeAVL<>(String::compareTo);
+        carregar(salvar("c", "a", "b"), destino);
+        assertEquals(Arrays.asList("a", "b", "c"), destino.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void textoMaiorQueORegistroViraIOException() throws IOException {
+        byte[] bytes = salvar("abc");
+        // o registro começa em 12: tamanho do registro (int) e tamanho do texto (int)
+        ByteBuffer.wrap(bytes).putInt(16, 1_000);
+        BinTree<String> destino = new BinTree<>(String::compareTo);
+        IOException e = assertThrows(IOException.class, () -> carregar(bytes, destino));
+        assertEquals("registro 0 corrompido", e.getMessage());
+        assertEquals(0, destino.quantidadeNos());
+    }
+
+    @Test
+    void cabecalhoCorrompidoNaoAlocaAQuantidadeGravada() throws IOException {
+        byte[] bytes = salvar("a", "b");
+        ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+        Path arquivo = Files.createTempFile("snapshot", ".bin");
+        try {
+            Files.write(arquivo, bytes);
+            BinTree<String> destino = new BinTree<>(String::compareTo);
+            assertThrows(IOException.class, () -> SnapshotArvore.carregar(arquivo, TEXTO, destino));
+            // sem o tamanho do canal, o vetor cresce aos poucos até o fim dos dados
+            assertThrows(IOException.class, () -> carregar(bytes, destino));
+        } finally {
+            Files.delete(arquivo);
+        }
+    }
+
+    @Test
+    void tamanhoDeRegistroCorrompidoNaoPassaDoArquivo() throws IOException {
+        byte[] bytes = salvar("a");
+        ByteBuffer.wrap(bytes).putInt(12, Integer.MAX_VALUE);
+        Path arquivo = Files.createTempFile("snapshot", ".bin");
+        try {
+            Files.write(arquivo, bytes);
+            BinTree<String> destino = new BinTree<>(String::compareTo);
+            assertThrows(EOFException.class, () -> SnapshotArvore.carregar(arquivo, TEXTO, destino));
+            assertThrows(IOException.class, () -> carregar(bytes, destino));
+        } finally {
+            Files.delete(arquivo);
+        }
+    }
+}